@@ -0,0 +1,70 @@
+package com.sportygroup.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of one event outcome record by the Kafka {@link JsonDeserializer}, configured as in
+ * KafkaConfig, for outcomes with a growing number of market results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventOutcomeDeserializationBenchmark {
+
+    private static final String TOPIC = "event-outcomes";
+
+    @Param({"0", "50"})
+    public int markets;
+
+    private JsonDeserializer<EventOutcome> deserializer;
+    private byte[] record;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(Map.of(
+            JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.VALUE_DEFAULT_TYPE, EventOutcome.class.getName()), false);
+
+        Map<String, String> marketResults = new LinkedHashMap<>();
+        for (int m = 0; m < markets; m++) {
+            marketResults.put("market-" + m, "selection-" + (m % 3));
+        }
+        // Producers send without type headers, so the default type applies
+        record = new ObjectMapper().writeValueAsBytes(
+            new EventOutcome("event001", "Team A vs Team B", "team1", marketResults.isEmpty() ? null : marketResults, 1L));
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+    }
+
+    @Benchmark
+    public EventOutcome deserialize() {
+        return deserializer.deserialize(TOPIC, new RecordHeaders(), record);
+    }
+}
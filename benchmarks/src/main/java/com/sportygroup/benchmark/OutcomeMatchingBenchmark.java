@@ -0,0 +1,103 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.OutcomeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching cost per bet of the outcome index against a linear scan of the market results, for an
+ * event with 50 markets. The winner-only comparison is the old market-blind matching, for reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutcomeMatchingBenchmark {
+
+    private static final int BETS = 10_000;
+
+    @Param("50")
+    public int markets;
+
+    private List<Bet> bets;
+    private EventOutcome outcome;
+    private OutcomeIndex index;
+    private List<Map.Entry<String, String>> marketResults;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> results = new LinkedHashMap<>();
+        for (int m = 0; m < markets; m++) {
+            results.put("market-" + m, "selection-" + (m % 3));
+        }
+        outcome = new EventOutcome("event1", "Benchmark", "selection-0", results);
+        index = OutcomeIndex.of(outcome);
+        marketResults = new ArrayList<>(results.entrySet());
+
+        // Fresh string instances, as bets deserialized from the database would have
+        Random random = new Random(42);
+        bets = new ArrayList<>(BETS);
+        for (int i = 0; i < BETS; i++) {
+            bets.add(Bet.builder()
+                .eventId("event1")
+                .eventMarketId(new String("market-" + random.nextInt(markets)))
+                .eventWinnerId(new String("selection-" + random.nextInt(3)))
+                .status(BetStatus.PENDING)
+                .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BETS)
+    public void indexLookup(Blackhole blackhole) {
+        for (Bet bet : bets) {
+            blackhole.consume(index.settle(bet));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BETS)
+    public void linearScan(Blackhole blackhole) {
+        for (Bet bet : bets) {
+            BetStatus status = null;
+            for (Map.Entry<String, String> result : marketResults) {
+                if (result.getKey().equals(bet.getEventMarketId())) {
+                    status = result.getValue().equals(bet.getEventWinnerId()) ? BetStatus.WON : BetStatus.LOST;
+                    break;
+                }
+            }
+            blackhole.consume(status);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BETS)
+    public void winnerOnly(Blackhole blackhole) {
+        for (Bet bet : bets) {
+            blackhole.consume(bet.getEventWinnerId().equals(outcome.getEventWinnerId()) ? BetStatus.WON : BetStatus.LOST);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.repository.BetRepository;
+import org.apache.rocketmq.spring.autoconfigure.RocketMQAutoConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repository queries of one event's settlement against the migrated H2 schema: the per-market bulk
+ * updates, the read-back of the settled bets and the first chunk fetch of streaming settlement.
+ * The event's bets are reset to PENDING before every invocation, outside the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettlementQueryBenchmark {
+
+    private static final String EVENT_ID = "event1";
+    private static final List<String> MARKETS = List.of("match-winner", "over-under");
+
+    private static final String SEED_SQL =
+        "INSERT INTO bets (bet_id, user_id, event_id, event_market_id, event_winner_id, bet_amount, status, created_at) " +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || MOD(X, 1000), 'event' || MOD(X, 100), " +
+        "CASE WHEN MOD(X, 2) = 0 THEN 'match-winner' ELSE 'over-under' END, " +
+        "CASE WHEN MOD(X, 3) = 0 THEN 'team1' ELSE 'team2' END, 10.00, 'PENDING', CURRENT_TIMESTAMP " +
+        "FROM SYSTEM_RANGE(1, ?)";
+
+    /** Bets in the table, spread over 100 events */
+    @Param("100000")
+    public int bets;
+
+    private ConfigurableApplicationContext context;
+    private BetRepository betRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private LocalDateTime settledAt;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PersistenceContext.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+            .run();
+        betRepository = context.getBean(BetRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate.update(SEED_SQL, bets);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetEvent() {
+        jdbcTemplate.update("UPDATE bets SET status = 'PENDING', settled_at = NULL WHERE event_id = ?", EVENT_ID);
+        settledAt = LocalDateTime.now();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int settleMarkets() {
+        return transactionTemplate.execute(status -> {
+            int settled = 0;
+            for (String market : MARKETS) {
+                settled += betRepository.settleMarketWinningBets(EVENT_ID, market, "team1",
+                    BetStatus.PENDING, BetStatus.WON, settledAt, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            return settled + betRepository.settleMarketLosingBets(EVENT_ID, MARKETS,
+                BetStatus.PENDING, BetStatus.LOST, settledAt, Long.MIN_VALUE, Long.MAX_VALUE);
+        });
+    }
+
+    @Benchmark
+    public List<Bet> settleMarketsAndReadBack() {
+        settleMarkets();
+        return transactionTemplate.execute(status -> betRepository.findByEventIdAndSettledAtAndBetIdBetween(EVENT_ID, settledAt,
+            Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public List<Bet> fetchPendingChunk() {
+        return transactionTemplate.execute(status -> betRepository.findByEventIdAndStatusAndBetIdGreaterThanOrderByBetIdAsc(
+            EVENT_ID, BetStatus.PENDING, 0L, PageRequest.ofSize(500)));
+    }
+
+    /**
+     * Just the persistence layer of the application: datasource, Flyway schema and repositories
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {KafkaAutoConfiguration.class, RocketMQAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Bet.class)
+    @EnableJpaRepositories(basePackageClasses = BetRepository.class)
+    static class PersistenceContext {
+    }
+}
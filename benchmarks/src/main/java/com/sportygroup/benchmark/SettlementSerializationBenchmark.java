@@ -0,0 +1,56 @@
+package com.sportygroup.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.config.AppConfig;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of one {@link BetSettlement} with the application's ObjectMapper, as the RocketMQ
+ * publisher does for every settlement, and the decoding a downstream consumer pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private BetSettlement settlement;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new AppConfig().objectMapper();
+        settlement = new BetSettlement(123456789L, "user123", BetStatus.WON, 18500,
+            LocalDateTime.of(2024, 1, 1, 12, 0), "event001");
+        json = objectMapper.writeValueAsBytes(settlement);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(settlement);
+    }
+
+    @Benchmark
+    public BetSettlement deserialize() throws IOException {
+        return objectMapper.readValue(json, BetSettlement.class);
+    }
+}
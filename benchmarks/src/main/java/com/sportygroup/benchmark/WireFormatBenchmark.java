@@ -0,0 +1,102 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.codec.BetSettlementMessageCodec;
+import com.sportygroup.codec.EventOutcomeDeserializer;
+import com.sportygroup.codec.EventOutcomeSerializer;
+import com.sportygroup.config.AppConfig;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serde cost of the JSON and Avro wire formats for event outcomes on Kafka (with 10 market
+ * results) and bet settlements on RocketMQ. The encoded size of each message is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final String TOPIC = "event-outcomes";
+
+    @Param({"json", "avro"})
+    public String format;
+
+    private EventOutcomeSerializer outcomeSerializer;
+    private EventOutcomeDeserializer outcomeDeserializer;
+    private BetSettlementMessageCodec settlementCodec;
+    private EventOutcome outcome;
+    private BetSettlement settlement;
+    private Headers outcomeHeaders;
+    private byte[] outcomeBody;
+    private byte[] settlementBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        outcomeSerializer = new EventOutcomeSerializer();
+        outcomeSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+            EventOutcomeSerializer.WIRE_FORMAT_CONFIG, format), false);
+        outcomeDeserializer = new EventOutcomeDeserializer();
+        outcomeDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.VALUE_DEFAULT_TYPE, EventOutcome.class.getName()), false);
+        settlementCodec = new BetSettlementMessageCodec(new AppConfig().objectMapper(), format);
+
+        Map<String, String> marketResults = new LinkedHashMap<>();
+        for (int m = 0; m < 10; m++) {
+            marketResults.put("market-" + m, "selection-" + (m % 3));
+        }
+        outcome = new EventOutcome("event001", "Team A vs Team B", "team1", marketResults, 1L);
+        settlement = new BetSettlement(123456789L, "user123", BetStatus.WON, 18500,
+            LocalDateTime.of(2024, 1, 1, 12, 0), "event001");
+
+        outcomeHeaders = new RecordHeaders();
+        outcomeBody = outcomeSerializer.serialize(TOPIC, outcomeHeaders, outcome);
+        settlementBody = settlementCodec.encode(settlement);
+        System.out.printf("%n%s: EventOutcome %d bytes, BetSettlement %d bytes%n",
+            format, outcomeBody.length, settlementBody.length);
+    }
+
+    @Benchmark
+    public byte[] serializeOutcome() {
+        return outcomeSerializer.serialize(TOPIC, new RecordHeaders(), outcome);
+    }
+
+    @Benchmark
+    public EventOutcome deserializeOutcome() {
+        return outcomeDeserializer.deserialize(TOPIC, outcomeHeaders, outcomeBody);
+    }
+
+    @Benchmark
+    public byte[] serializeSettlement() throws IOException {
+        return settlementCodec.encode(settlement);
+    }
+
+    @Benchmark
+    public BetSettlement deserializeSettlement() throws IOException {
+        return settlementCodec.decode(settlementBody, settlementCodec.headerValue());
+    }
+}
@@ -0,0 +1,99 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bet placements per microsecond recorded by {@link ExposureTracker} with 64 threads all placing
+ * bets on one hot event with two selections, against the same bookkeeping on AtomicLong counters.
+ * Every placement updates four counters of the selection and marks the event changed.
+ * Lives in the service package so the baseline computes payouts with the package-private calculator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class ExposureContentionBenchmark {
+
+    private ExposureTracker tracker;
+    private AtomicExposure atomicExposure;
+
+    @State(Scope.Thread)
+    public static class Placement {
+        List<Bet> bet;
+
+        @Setup
+        public void setUp() {
+            // Half the threads back each selection, half of the bets carry captured odds
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Bet placed = new Bet("user" + random.nextInt(1000), "hot-event", "match-winner",
+                random.nextBoolean() ? "team1" : "team2", new BigDecimal("25.00"));
+            placed.setOdds(random.nextBoolean() ? new BigDecimal("1.85") : null);
+            bet = List.of(placed);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // Only the in-memory counters are used; nothing is rebuilt or persisted
+        tracker = new ExposureTracker(null, null, null);
+        atomicExposure = new AtomicExposure();
+    }
+
+    @Benchmark
+    public void longAdder(Placement placement) {
+        tracker.placed(placement.bet);
+    }
+
+    @Benchmark
+    public void atomicLong(Placement placement) {
+        atomicExposure.placed(placement.bet.get(0));
+    }
+
+    /**
+     * The tracker's structure with AtomicLong instead of LongAdder counters
+     */
+    static final class AtomicExposure {
+        private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong[]>> exposureByEvent = new ConcurrentHashMap<>();
+        private final Set<String> changedEvents = ConcurrentHashMap.newKeySet();
+
+        void placed(Bet bet) {
+            AtomicLong[] counters = exposureByEvent
+                .computeIfAbsent(bet.getEventId(), eventId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(bet.getEventMarketId() + '/' + bet.getEventWinnerId(),
+                    selection -> new AtomicLong[] {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()});
+            long stakeCents = BetSettlement.toCents(bet.getBetAmount());
+            counters[0].incrementAndGet();
+            counters[1].addAndGet(stakeCents);
+            if (bet.getOdds() != null) {
+                counters[2].addAndGet(PayoutCalculator.payoutCents(bet.getBetAmount(), bet.getOdds()));
+            } else {
+                counters[3].addAndGet(stakeCents);
+            }
+            changedEvents.add(bet.getEventId());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sportygroup.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payout arithmetic per winning bet: the BigDecimal multiply-and-round the service used to do
+ * against {@link PayoutCalculator}'s fixed-point cents. Run with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayoutBenchmark {
+
+    private static final int BETS = 1024;
+
+    private final BigDecimal[] amounts = new BigDecimal[BETS];
+    private final BigDecimal[] odds = new BigDecimal[BETS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < BETS; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextInt(1, 100_000), 2);
+            odds[i] = BigDecimal.valueOf(random.nextInt(10_100, 100_000), 4);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BETS)
+    public void bigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < BETS; i++) {
+            blackhole.consume(amounts[i].multiply(odds[i]).setScale(2, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BETS)
+    public void fixedPointCents(Blackhole blackhole) {
+        for (int i = 0; i < BETS; i++) {
+            blackhole.consume(PayoutCalculator.payoutCents(amounts[i], odds[i]));
+        }
+    }
+}
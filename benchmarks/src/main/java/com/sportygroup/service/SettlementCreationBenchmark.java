@@ -0,0 +1,95 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link BetMatchingService#createBetSettlement} for a losing bet and for winning bets paid at
+ * captured odds, at the event's odds snapshot and at the default odds. Run with -prof gc for the
+ * bytes allocated per settlement.
+ * Lives in the service package because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementCreationBenchmark {
+
+    private static final LocalDateTime SETTLED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private BetMatchingService betMatchingService;
+    private EventOutcome outcome;
+    private EventOdds odds;
+    private Bet lostBet;
+    private Bet wonAtCapturedOdds;
+    private Bet wonAtSnapshotOdds;
+    private Bet wonAtDefaultOdds;
+
+    @Setup
+    public void setUp() {
+        // Only the meter registry is used when creating a settlement
+        betMatchingService = new BetMatchingService(null, null, null, new SimpleMeterRegistry(), null, null, null);
+        outcome = new EventOutcome("event1", "Benchmark", "team1");
+        odds = new EventOdds("event1", Map.of("match-winner", Map.of("team1", new BigDecimal("1.85"))));
+
+        lostBet = bet(BetStatus.LOST, "team2", null);
+        wonAtCapturedOdds = bet(BetStatus.WON, "team1", new BigDecimal("2.40"));
+        wonAtSnapshotOdds = bet(BetStatus.WON, "team1", null);
+        wonAtDefaultOdds = bet(BetStatus.WON, "team3", null);
+    }
+
+    @Benchmark
+    public BetSettlement lost() {
+        return betMatchingService.createBetSettlement(lostBet, outcome, odds);
+    }
+
+    @Benchmark
+    public BetSettlement wonAtCapturedOdds() {
+        return betMatchingService.createBetSettlement(wonAtCapturedOdds, outcome, odds);
+    }
+
+    @Benchmark
+    public BetSettlement wonAtSnapshotOdds() {
+        return betMatchingService.createBetSettlement(wonAtSnapshotOdds, outcome, odds);
+    }
+
+    @Benchmark
+    public BetSettlement wonAtDefaultOdds() {
+        return betMatchingService.createBetSettlement(wonAtDefaultOdds, outcome, odds);
+    }
+
+    private static Bet bet(BetStatus status, String selection, BigDecimal capturedOdds) {
+        return Bet.builder()
+            .betId(1L)
+            .userId("user1")
+            .eventId("event1")
+            .eventMarketId("match-winner")
+            .eventWinnerId(selection)
+            .betAmount(new BigDecimal("10.00"))
+            .odds(capturedOdds)
+            .status(status)
+            .settledAt(SETTLED_AT)
+            .build();
+    }
+}
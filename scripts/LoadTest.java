@@ -0,0 +1,107 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of bet placement: each client posts a bet to POST /api/bets, waits for the
+ * response and posts the next one. Clients run on virtual threads, so this needs Java 21.
+ * Prints throughput, latency percentiles and errors measured after the warm-up.
+ * Usage: java scripts/LoadTest.java [baseUrl] [clients] [seconds] [warmupSeconds]
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmup = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        URI uri = URI.create(baseUrl + "/api/bets");
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+        long end = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>(clients);
+        int[] counts = new int[clients];
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                long[] samples = new long[1024];
+                latencies.add(samples);
+                clientThreads.submit(() -> {
+                    long[] own = samples;
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = http.send(request(uri, client), HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long finished = System.nanoTime();
+                        if (start < measureFrom) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (counts[client] == own.length) {
+                            own = Arrays.copyOf(own, own.length * 2);
+                            latencies.set(client, own);
+                        }
+                        own[counts[client]++] = finished - start;
+                    }
+                });
+            }
+        }
+
+        long total = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[(int) total];
+        int next = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies.get(c), 0, all, next, counts[c]);
+            next += counts[c];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.0f req/s%n",
+            clients, seconds, total, errors.get(), total / (double) seconds);
+        if (total > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static HttpRequest request(URI uri, int client) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = String.format(
+            "{\"userId\":\"load-user-%d\",\"eventId\":\"load-event-%d\",\"eventMarketId\":\"match-winner\"," +
+            "\"eventWinnerId\":\"team%d\",\"betAmount\":%d.00}",
+            client, random.nextInt(100), 1 + random.nextInt(2), 1 + random.nextInt(100));
+        return HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sportygroup.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Avro binary encoding of a message type through the class generated from its schema in
+ * src/main/resources/avro. Instances are thread-safe.
+ */
+public abstract class AvroCodec<T, R extends SpecificRecord> {
+
+    private final Schema schema;
+    private final SpecificDatumWriter<R> writer;
+    private final SpecificDatumReader<R> reader;
+
+    // Encoders and decoders are reset for each message, so their buffers are allocated once per thread
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    protected AvroCodec(Schema schema) {
+        // The generated classes' own encode/decode methods, rather than reflective traversal of the schema
+        SpecificData model = new SpecificData();
+        model.setCustomCoders(true);
+        this.schema = schema;
+        this.writer = new SpecificDatumWriter<>(schema, model);
+        this.reader = new SpecificDatumReader<>(schema, schema, model);
+    }
+
+    public byte[] encode(T value) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, encoders.get());
+            encoders.set(encoder);
+            writer.write(toRecord(value), encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + schema.getName(), e);
+        }
+    }
+
+    public T decode(byte[] bytes) {
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, decoders.get());
+            decoders.set(decoder);
+            return fromRecord(reader.read(null, decoder));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode " + schema.getName(), e);
+        }
+    }
+
+    protected abstract R toRecord(T value);
+
+    protected abstract T fromRecord(R record);
+}
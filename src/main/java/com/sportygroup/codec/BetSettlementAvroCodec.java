@@ -0,0 +1,42 @@
+package com.sportygroup.codec;
+
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Avro codec for {@link BetSettlement}, schema avro/BetSettlement.avsc.
+ * The settlement time is written as microseconds since 1970-01-01T00:00 of the local date-time.
+ */
+public class BetSettlementAvroCodec extends AvroCodec<BetSettlement, com.sportygroup.avro.BetSettlement> {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public BetSettlementAvroCodec() {
+        super(com.sportygroup.avro.BetSettlement.getClassSchema());
+    }
+
+    @Override
+    protected com.sportygroup.avro.BetSettlement toRecord(BetSettlement settlement) {
+        return new com.sportygroup.avro.BetSettlement(
+            settlement.betId(),
+            settlement.userId(),
+            com.sportygroup.avro.BetStatus.valueOf(settlement.settlementStatus().name()),
+            settlement.payoutCents(),
+            ChronoUnit.MICROS.between(EPOCH, settlement.settlementTime()),
+            settlement.eventId());
+    }
+
+    @Override
+    protected BetSettlement fromRecord(com.sportygroup.avro.BetSettlement record) {
+        return new BetSettlement(
+            record.getBetId(),
+            record.getUserId(),
+            BetStatus.valueOf(record.getSettlementStatus().name()),
+            record.getPayoutCents(),
+            EPOCH.plus(record.getSettlementTime(), ChronoUnit.MICROS),
+            record.getEventId());
+    }
+}
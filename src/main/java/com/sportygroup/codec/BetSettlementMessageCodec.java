@@ -0,0 +1,43 @@
+package com.sportygroup.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.model.BetSettlement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Encodes bet settlements for the bet-settlements RocketMQ topic in the configured wire format
+ * (app.rocketmq.wire-format) and decodes them in whichever format their wire-format property names.
+ */
+@Component
+public class BetSettlementMessageCodec {
+
+    private final ObjectMapper objectMapper;
+    private final BetSettlementAvroCodec avro = new BetSettlementAvroCodec();
+    private final WireFormat wireFormat;
+
+    public BetSettlementMessageCodec(ObjectMapper objectMapper,
+                                     @Value("${app.rocketmq.wire-format:json}") String wireFormat) {
+        this.objectMapper = objectMapper;
+        this.wireFormat = WireFormat.of(wireFormat);
+    }
+
+    /**
+     * Value of the wire-format property for messages written by {@link #encode}
+     */
+    public String headerValue() {
+        return wireFormat.headerValue();
+    }
+
+    public byte[] encode(BetSettlement settlement) throws IOException {
+        return wireFormat == WireFormat.AVRO ? avro.encode(settlement) : objectMapper.writeValueAsBytes(settlement);
+    }
+
+    public BetSettlement decode(byte[] body, String header) throws IOException {
+        return WireFormat.fromHeader(header) == WireFormat.AVRO
+            ? avro.decode(body)
+            : objectMapper.readValue(body, BetSettlement.class);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sportygroup.codec;
+
+import com.sportygroup.model.EventOutcome;
+
+/**
+ * Avro codec for {@link EventOutcome}, schema avro/EventOutcome.avsc.
+ * The schema has no void fields; {@link EventOutcomeSerializer} writes outcomes with voids as JSON.
+ */
+public class EventOutcomeAvroCodec extends AvroCodec<EventOutcome, com.sportygroup.avro.EventOutcome> {
+
+    public EventOutcomeAvroCodec() {
+        super(com.sportygroup.avro.EventOutcome.getClassSchema());
+    }
+
+    @Override
+    protected com.sportygroup.avro.EventOutcome toRecord(EventOutcome outcome) {
+        return new com.sportygroup.avro.EventOutcome(
+            outcome.getEventId(),
+            outcome.getEventName(),
+            outcome.getEventWinnerId(),
+            outcome.getMarketResults(),
+            outcome.getOutcomeVersion());
+    }
+
+    @Override
+    protected EventOutcome fromRecord(com.sportygroup.avro.EventOutcome record) {
+        return new EventOutcome(
+            record.getEventId(),
+            record.getEventName(),
+            record.getEventWinnerId(),
+            record.getMarketResults(),
+            record.getOutcomeVersion());
+    }
+}
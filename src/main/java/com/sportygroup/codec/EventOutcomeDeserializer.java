@@ -0,0 +1,45 @@
+package com.sportygroup.codec;
+
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for event outcomes in any wire format, chosen per record by its wire-format
+ * header. Records without the header are JSON; configuration is passed to the JSON deserializer.
+ */
+public class EventOutcomeDeserializer implements Deserializer<EventOutcome> {
+
+    private final JsonDeserializer<EventOutcome> json = new JsonDeserializer<>();
+    private final EventOutcomeAvroCodec avro = new EventOutcomeAvroCodec();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public EventOutcome deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(WireFormat.HEADER);
+        WireFormat format = WireFormat.fromHeader(header == null ? null : new String(header.value(), StandardCharsets.UTF_8));
+        return format == WireFormat.AVRO ? avro.decode(data) : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public EventOutcome deserialize(String topic, byte[] data) {
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
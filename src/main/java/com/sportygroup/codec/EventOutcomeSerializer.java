@@ -0,0 +1,71 @@
+package com.sportygroup.codec;
+
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kafka serializer for event outcomes in the wire format configured for the topic, with the
+ * format announced in the wire-format header. The format of a topic is read from
+ * {@value #WIRE_FORMAT_CONFIG}.&lt;topic&gt;, falling back to {@value #WIRE_FORMAT_CONFIG}, then JSON.
+ * Outcomes that void bets are always written as JSON, since the Avro schema has no void fields;
+ * readers pick the format of each record from its header. Other configuration is passed to the JSON serializer.
+ */
+public class EventOutcomeSerializer implements Serializer<EventOutcome> {
+
+    public static final String WIRE_FORMAT_CONFIG = "sportygroup.wire.format";
+
+    private final JsonSerializer<EventOutcome> json = new JsonSerializer<>();
+    private final EventOutcomeAvroCodec avro = new EventOutcomeAvroCodec();
+    private final Map<String, WireFormat> formatByTopic = new ConcurrentHashMap<>();
+    private Map<String, ?> configs = Map.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.configs = configs;
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, EventOutcome outcome) {
+        WireFormat format = outcome != null && outcome.hasVoids() ? WireFormat.JSON : formatOf(topic);
+        headers.remove(WireFormat.HEADER);
+        headers.add(WireFormat.HEADER, format.headerValue().getBytes(StandardCharsets.UTF_8));
+        return encode(topic, format, outcome);
+    }
+
+    /**
+     * Without headers the reader cannot tell the format, so this always writes JSON
+     */
+    @Override
+    public byte[] serialize(String topic, EventOutcome outcome) {
+        return encode(topic, WireFormat.JSON, outcome);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    private byte[] encode(String topic, WireFormat format, EventOutcome outcome) {
+        if (outcome == null) {
+            return null;
+        }
+        return format == WireFormat.AVRO ? avro.encode(outcome) : json.serialize(topic, outcome);
+    }
+
+    private WireFormat formatOf(String topic) {
+        return formatByTopic.computeIfAbsent(topic, t -> {
+            Object configured = configs.get(WIRE_FORMAT_CONFIG + "." + t);
+            if (configured == null) {
+                configured = configs.get(WIRE_FORMAT_CONFIG);
+            }
+            return configured == null ? WireFormat.JSON : WireFormat.of(configured.toString());
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.sportygroup.codec;
+
+import java.util.Locale;
+
+/**
+ * Encoding of a message body, announced in the wire-format message header as "format/version",
+ * e.g. "avro/1". Messages without the header are JSON, as written before the header existed,
+ * so JSON and Avro producers can share a topic during a rollout.
+ */
+public enum WireFormat {
+    JSON,
+    AVRO;
+
+    public static final String HEADER = "wire-format";
+
+    /** Version of the Avro schemas in src/main/resources/avro written by this build */
+    public static final int SCHEMA_VERSION = 1;
+
+    public String headerValue() {
+        return name().toLowerCase(Locale.ROOT) + "/" + SCHEMA_VERSION;
+    }
+
+    /**
+     * Configured format name, e.g. "json" or "avro"
+     */
+    public static WireFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Format of a received message from its header value, JSON when the header is absent
+     */
+    public static WireFormat fromHeader(String value) {
+        if (value == null) {
+            return JSON;
+        }
+        int slash = value.indexOf('/');
+        WireFormat format = of(slash < 0 ? value : value.substring(0, slash));
+        if (format == AVRO && slash >= 0 && Integer.parseInt(value.substring(slash + 1)) > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported " + HEADER + " version: " + value);
+        }
+        return format;
+    }
+}
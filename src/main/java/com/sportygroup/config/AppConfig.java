@@ -2,6 +2,7 @@ package com.sportygroup.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -20,4 +21,12 @@ public class AppConfig {
         mapper.registerModule(new JavaTimeModule());
         return mapper;
     }
+    
+    /**
+     * Handle each HTTP request on its own virtual thread when virtual threads are enabled
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequestHandling(ThreadFactories threadFactories) {
+        return protocolHandler -> threadFactories.perTaskExecutor("http-handler").ifPresent(protocolHandler::setExecutor);
+    }
 }
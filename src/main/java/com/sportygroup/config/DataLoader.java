@@ -3,12 +3,14 @@ package com.sportygroup.config;
 import com.sportygroup.model.Bet;
 import com.sportygroup.model.BetStatus;
 import com.sportygroup.repository.BetRepository;
+import com.sportygroup.service.ExposureTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Data loader to populate sample bets for testing - demonstrating Lombok usage
@@ -19,6 +21,7 @@ import java.math.BigDecimal;
 public class DataLoader implements CommandLineRunner {
     
     private final BetRepository betRepository;
+    private final ExposureTracker exposureTracker;
     
     @Override
     public void run(String... args) throws Exception {
@@ -37,6 +40,7 @@ public class DataLoader implements CommandLineRunner {
             .eventMarketId("match-winner")
             .eventWinnerId("team1")
             .betAmount(new BigDecimal("100.00"))
+            .odds(new BigDecimal("1.85"))
             .status(BetStatus.PENDING)
             .build();
         
@@ -64,6 +68,7 @@ public class DataLoader implements CommandLineRunner {
             .eventMarketId("match-winner")
             .eventWinnerId("teamA")
             .betAmount(new BigDecimal("200.00"))
+            .odds(new BigDecimal("2.40"))
             .status(BetStatus.PENDING)
             .build();
         
@@ -76,16 +81,9 @@ public class DataLoader implements CommandLineRunner {
             .status(BetStatus.PENDING)
             .build();
         
-        betRepository.save(bet1);
-        betRepository.save(bet2);
-        betRepository.save(bet3);
-        betRepository.save(bet4);
-        betRepository.save(bet5);
+        // Saved together so the inserts go out as one JDBC batch
+        exposureTracker.placed(betRepository.saveAll(List.of(bet1, bet2, bet3, bet4, bet5)));
         
         log.info("Loaded {} sample bets", betRepository.count());
-        
-        // Log sample bets for reference using Lombok's toString
-        betRepository.findAll().forEach(bet -> 
-            log.info("Sample bet: {}", bet));
     }
 }
@@ -1,8 +1,13 @@
 package com.sportygroup.config;
 
+import com.sportygroup.codec.EventOutcomeDeserializer;
+import com.sportygroup.codec.EventOutcomeSerializer;
+import com.sportygroup.consumer.PendingOffsets;
 import com.sportygroup.model.EventOutcome;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +15,16 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -28,14 +39,69 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
     
-    // Producer Configuration
+    @Value("${app.kafka.topics.event-outcomes}")
+    private String eventOutcomesTopic;
+    
+    @Value("${app.kafka.topics.event-outcomes-dlt:${app.kafka.topics.event-outcomes}.DLT}")
+    private String eventOutcomesDeadLetterTopic;
+    
+    @Value("${app.kafka.wire-format:json}")
+    private String wireFormat;
+    
+    @Value("${app.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+    
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int batchSize;
+    
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+    
+    @Value("${app.kafka.producer.idempotent:true}")
+    private boolean idempotent;
+    
+    @Value("${app.kafka.consumer.concurrency:1}")
+    private int concurrency;
+    
+    @Value("${app.settlement.executor.commit-interval-ms:200}")
+    private long commitIntervalMs;
+    
+    @Value("${app.kafka.consumer.batch.max-poll-records:500}")
+    private int maxPollRecords;
+    
+    @Value("${app.kafka.consumer.batch.fetch-min-bytes:1}")
+    private int fetchMinBytes;
+    
+    @Value("${app.kafka.consumer.batch.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+    
+    @Value("${app.kafka.consumer.batch.max-partition-fetch-bytes:1048576}")
+    private int maxPartitionFetchBytes;
+    
+    @Value("${app.kafka.consumer.batch.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+    
+    /**
+     * Producer Configuration. Records wait up to linger.ms to fill a batch of batch.size bytes per
+     * partition, and each batch is compressed as a whole. The idempotent producer (acks=all) keeps
+     * per-partition order across retries with up to 5 requests in flight.
+     */
     @Bean
     public ProducerFactory<String, EventOutcome> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventOutcomeSerializer.class);
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(EventOutcomeSerializer.WIRE_FORMAT_CONFIG + "." + eventOutcomesTopic, wireFormat);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+        if (idempotent) {
+            configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+            configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        }
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -45,6 +111,26 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
     
+    /**
+     * Publishes event outcome records the listeners cannot handle, such as records with an unknown
+     * wire-format header or a newer Avro schema version, to the dead-letter topic. Records that
+     * failed to deserialize are published with their original bytes and headers, plus the
+     * exception headers added by the recoverer.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<String, byte[]>(configProps)));
+        templates.put(EventOutcome.class, kafkaTemplate());
+        // Any partition: the dead-letter topic need not have as many partitions as the source topic
+        return new DeadLetterPublishingRecoverer(templates,
+            (record, exception) -> new TopicPartition(eventOutcomesDeadLetterTopic, -1));
+    }
+    
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, EventOutcome> consumerFactory() {
@@ -52,7 +138,11 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Reads JSON and Avro records alike, by their wire-format header. A record that fails to
+        // decode reaches the container with a null value and the failure in a header, instead of
+        // failing every poll of its partition
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, EventOutcomeDeserializer.class);
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, EventOutcome.class.getName());
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
@@ -60,11 +150,77 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
     
+    /**
+     * Record listener container. Records that fail to deserialize go to the dead-letter topic.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, EventOutcome> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, EventOutcome> kafkaListenerContainerFactory(
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
         ConcurrentKafkaListenerContainerFactory<String, EventOutcome> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer));
+        return factory;
+    }
+    
+    /**
+     * Parallel listener container: the listener only queues each record on the settlement executor,
+     * so the container commits nothing itself. {@link PendingOffsets} commits the offsets of settled
+     * records from the listener and from idle events, which also fire while the container is paused.
+     * Records that fail to deserialize go to the dead-letter topic and count as settled, so the
+     * committed offset moves past them.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventOutcome> parallelKafkaListenerContainerFactory(
+            PendingOffsets pendingOffsets, DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        Map<String, Object> configProps = new HashMap<>(consumerFactory().getConfigurationProperties());
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        
+        ConcurrentKafkaListenerContainerFactory<String, EventOutcome> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setIdleEventInterval(commitIntervalMs);
+        factory.getContainerProperties().setConsumerRebalanceListener(pendingOffsets);
+        factory.setCommonErrorHandler(new DefaultErrorHandler((record, exception) -> {
+            deadLetterPublishingRecoverer.accept(record, exception);
+            pendingOffsets.skipped(new TopicPartition(record.topic(), record.partition()), record.offset());
+        }));
+        return factory;
+    }
+    
+    // Batch Consumer Configuration
+    @Bean
+    public ConsumerFactory<String, EventOutcome> batchConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>(consumerFactory().getConfigurationProperties());
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        configProps.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, maxPartitionFetchBytes);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+    
+    /**
+     * Batch listener container: offsets of a poll are committed only after the listener returns,
+     * i.e. after the whole batch has been settled. A failed batch is redelivered until it succeeds,
+     * except for a record that failed to deserialize: the listener settles the records before it and
+     * reports it, and it goes straight to the dead-letter topic without retries.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventOutcome> batchKafkaListenerContainerFactory(
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, EventOutcome> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer,
+            new FixedBackOff(retryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
         return factory;
     }
 }
@@ -0,0 +1,91 @@
+package com.sportygroup.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads of the application's own pools: request handling, settlement workers,
+ * bet ID range settlement and the outbox relay. With app.virtual-threads.enabled on Java 21 or
+ * later these are virtual threads; otherwise, and on Java 17, they are daemon platform threads.
+ * The build targets Java 17, so the Java 21 API is looked up reflectively.
+ */
+@Component
+@Slf4j
+public class ThreadFactories {
+
+    private final Method ofVirtual;
+    private final Method builderName;
+    private final Method builderFactory;
+    private final Method newThreadPerTaskExecutor;
+
+    public ThreadFactories(@Value("${app.virtual-threads.enabled:false}") boolean virtualThreadsEnabled) {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        if (virtualThreadsEnabled) {
+            try {
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                builderName = builder.getMethod("name", String.class, long.class);
+                builderFactory = builder.getMethod("factory");
+                newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                log.info("Using virtual threads for request handling and settlement work");
+            } catch (ReflectiveOperationException e) {
+                ofVirtual = null;
+                log.warn("Virtual threads need Java 21 or later, running on {}; using platform threads",
+                    Runtime.version());
+            }
+        }
+        this.ofVirtual = ofVirtual;
+        this.builderName = builderName;
+        this.builderFactory = builderFactory;
+        this.newThreadPerTaskExecutor = newThreadPerTaskExecutor;
+    }
+
+    public boolean isVirtual() {
+        return ofVirtual != null;
+    }
+
+    /**
+     * Factory for threads named after the given name and a counter per factory (name-0, name-1, ...):
+     * virtual threads, or daemon platform threads
+     */
+    public ThreadFactory named(String name) {
+        if (isVirtual()) {
+            try {
+                return (ThreadFactory) builderFactory.invoke(builderName.invoke(ofVirtual.invoke(null), name + "-", 0L));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create a virtual thread factory", e);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An executor starting one virtual thread per task, if virtual threads are in use
+     */
+    public Optional<ExecutorService> perTaskExecutor(String name) {
+        if (!isVirtual()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) newThreadPerTaskExecutor.invoke(null, named(name)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+}
@@ -1,48 +1,279 @@
 package com.sportygroup.consumer;
 
 import com.sportygroup.model.EventOutcome;
+import com.sportygroup.model.OutcomeSource;
 import com.sportygroup.service.BetMatchingService;
+import com.sportygroup.service.SettlementExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * Kafka consumer for event outcomes
+ * Kafka consumer for event outcomes.
+ * Records, tagged by topic and partition: settlement.outcome.consume.lag from the record timestamp to
+ * its receipt, settlement.outcome.consume for handling the record or batch, and the number of records
+ * being handled as the settlement.outcome.inflight gauge.
+ * Exactly one listener runs: batch, parallel (app.settlement.executor.enabled) or, by default, per record.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class EventOutcomeConsumer {
     
+    private static final String PARALLEL_LISTENER = "eventOutcomeParallelListener";
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(EventOutcomeConsumer.class);
+    
     private final BetMatchingService betMatchingService;
+    private final MeterRegistry meterRegistry;
+    // Only available, like the parallel listener that uses it, with app.settlement.executor.enabled=true
+    private final ObjectProvider<SettlementExecutor> settlementExecutor;
+    private final PendingOffsets pendingOffsets;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final Map<String, AtomicInteger> inFlightRecords = new ConcurrentHashMap<>();
+    
+    @Value("${app.settlement.executor.retry-interval-ms:1000}")
+    private long retryIntervalMs;
     
     /**
      * Listen to event-outcomes topic and process bet settlements
      */
-    @KafkaListener(topics = "${app.kafka.topics.event-outcomes}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(id = "eventOutcomeListener",
+        topics = "${app.kafka.topics.event-outcomes}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        autoStartup = "#{!${app.kafka.consumer.batch.enabled:false} && !${app.settlement.executor.enabled:false}}")
     public void consumeEventOutcome(
             @Payload EventOutcome eventOutcome,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
         
-        log.info("Received event outcome from topic: {}, partition: {}, offset: {} - Event: {}", 
-            topic, partition, offset, eventOutcome);
+        log.debug("Received event outcome from topic: {}, partition: {}, offset: {} - Event: {}", 
+            topic, partition, offset, eventOutcome.getEventId());
         
+        eventOutcome.setSource(received(topic, partition, timestamp));
+        AtomicInteger inFlight = inFlight(topic, partition);
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             // Process the event outcome and match it to bets
             betMatchingService.processEventOutcome(eventOutcome);
             
-            log.info("Successfully processed event outcome for event: {}", eventOutcome.getEventId());
+            log.info("Processed event outcome for event: {} from topic: {}, partition: {}, offset: {}",
+                eventOutcome.getEventId(), topic, partition, offset);
             
         } catch (Exception e) {
             log.error("Error processing event outcome for event: {}", eventOutcome.getEventId(), e);
             // In a production system, you might want to send to a dead letter queue
             // or implement retry logic here
+        } finally {
+            sample.stop(consumeTimer(topic, partition, "record"));
+            inFlight.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Parallel mode: hand each outcome to the settlement executor, which settles different events
+     * concurrently and outcomes of the same event in order, and return to polling straight away.
+     * Offsets are committed by {@link PendingOffsets} as outcomes finish settling; a failed outcome is
+     * retried on its worker and its offset is not committed until it has settled. The container is
+     * paused while the executor is saturated and resumed once it has drained.
+     */
+    @KafkaListener(id = PARALLEL_LISTENER,
+        topics = "${app.kafka.topics.event-outcomes}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "parallelKafkaListenerContainerFactory",
+        autoStartup = "#{!${app.kafka.consumer.batch.enabled:false} && ${app.settlement.executor.enabled:false}}")
+    public void consumeEventOutcomeInParallel(ConsumerRecord<String, EventOutcome> record, Consumer<?, ?> consumer)
+            throws InterruptedException {
+        EventOutcome eventOutcome = record.value();
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        pendingOffsets.received(partition, record.offset());
+        if (eventOutcome == null) {
+            log.warn("Skipping empty event outcome at topic: {}, partition: {}, offset: {}",
+                record.topic(), record.partition(), record.offset());
+            pendingOffsets.completed(partition, record.offset());
+            return;
+        }
+        
+        eventOutcome.setSource(received(record.topic(), record.partition(), record.timestamp()));
+        AtomicInteger inFlight = inFlight(record.topic(), record.partition());
+        inFlight.incrementAndGet();
+        SettlementExecutor executor = settlementExecutor.getObject();
+        executor.execute(eventOutcome.getEventId(), () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                settleUntilSucceeded(eventOutcome);
+                pendingOffsets.completed(partition, record.offset());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Stopped retrying event outcome for event: {} at topic: {}, partition: {}, offset: {}; " +
+                    "its offset is not committed, so it is redelivered", eventOutcome.getEventId(),
+                    record.topic(), record.partition(), record.offset());
+            } finally {
+                sample.stop(consumeTimer(record.topic(), record.partition(), "parallel"));
+                inFlight.decrementAndGet();
+            }
+        });
+        
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(PARALLEL_LISTENER);
+        if (executor.isSaturated() && container != null && !container.isPauseRequested()) {
+            log.warn("Settlement executor is saturated, pausing event outcome consumption");
+            container.pause();
+        }
+        pendingOffsets.commit(consumer);
+    }
+    
+    /**
+     * Settle an outcome on its worker, retrying after retry-interval-ms until it succeeds, like a failed
+     * batch is redelivered. The record stays pending meanwhile, so the partition is not committed past it,
+     * and later outcomes of the same event wait behind it on the same worker.
+     */
+    private void settleUntilSucceeded(EventOutcome eventOutcome) throws InterruptedException {
+        while (true) {
+            try {
+                betMatchingService.processEventOutcome(eventOutcome);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error processing event outcome for event: {}, retrying in {} ms",
+                    eventOutcome.getEventId(), retryIntervalMs, e);
+                TimeUnit.MILLISECONDS.sleep(retryIntervalMs);
+            }
+        }
+    }
+    
+    /**
+     * While the parallel listener has no records, including while it is paused: commit offsets of
+     * outcomes that have finished settling and resume the container once the executor has drained.
+     * Published on the consumer thread, so the consumer may be used here.
+     */
+    @EventListener(condition = "event.listenerId.startsWith('" + PARALLEL_LISTENER + "')")
+    public void onParallelListenerIdle(ListenerContainerIdleEvent event) {
+        pendingOffsets.commit(event.getConsumer());
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(PARALLEL_LISTENER);
+        if (container != null && container.isPauseRequested() && settlementExecutor.getObject().isDrained()) {
+            log.info("Settlement executor has drained, resuming event outcome consumption");
+            container.resume();
         }
     }
+    
+    /**
+     * Batch mode: settle all outcomes of one poll as a single unit.
+     * Outcomes are deduplicated by event ID, keeping the latest record for each event.
+     * Exceptions propagate so the batch is redelivered and its offsets are not committed.
+     * A record that failed to deserialize ends the unit: the records before it are settled, then
+     * a BatchListenerFailedException tells the error handler to commit up to it, send it to the
+     * dead-letter topic and redeliver the rest.
+     */
+    @KafkaListener(id = "eventOutcomeBatchListener",
+        topics = "${app.kafka.topics.event-outcomes}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "${app.kafka.consumer.batch.enabled:false}")
+    public void consumeEventOutcomes(List<ConsumerRecord<String, EventOutcome>> records) {
+        Map<String, EventOutcome> outcomesByEvent = new LinkedHashMap<>();
+        Set<TopicPartition> partitions = new LinkedHashSet<>();
+        List<ConsumerRecord<String, EventOutcome>> settling = records;
+        ConsumerRecord<String, EventOutcome> undecodable = null;
+        DeserializationException failure = null;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, EventOutcome> record = records.get(i);
+            EventOutcome eventOutcome = record.value();
+            if (eventOutcome == null) {
+                failure = SerializationUtils.getExceptionFromHeader(
+                    record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+                if (failure != null) {
+                    undecodable = record;
+                    settling = records.subList(0, i);
+                    break;
+                }
+            }
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
+            inFlight(record.topic(), record.partition()).incrementAndGet();
+            if (eventOutcome == null) {
+                log.warn("Skipping empty event outcome at topic: {}, partition: {}, offset: {}",
+                    record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            eventOutcome.setSource(received(record.topic(), record.partition(), record.timestamp()));
+            outcomesByEvent.put(eventOutcome.getEventId(), eventOutcome);
+        }
+        
+        log.info("Received {} event outcome records for {} distinct events", records.size(), outcomesByEvent.size());
+        
+        long start = System.nanoTime();
+        try {
+            betMatchingService.processEventOutcomes(outcomesByEvent.values());
+        } finally {
+            // Every partition in the poll waited for the whole batch
+            long elapsed = System.nanoTime() - start;
+            partitions.forEach(partition ->
+                consumeTimer(partition.topic(), partition.partition(), "batch").record(elapsed, TimeUnit.NANOSECONDS));
+            settling.forEach(record -> inFlight(record.topic(), record.partition()).decrementAndGet());
+        }
+        
+        log.info("Successfully processed batch of {} event outcomes", outcomesByEvent.size());
+        if (undecodable != null) {
+            throw new BatchListenerFailedException("Event outcome record could not be deserialized", failure, undecodable);
+        }
+    }
+    
+    /**
+     * Record the consume lag of a record and describe where it came from
+     */
+    private OutcomeSource received(String topic, int partition, long timestamp) {
+        Timer.builder("settlement.outcome.consume.lag")
+            .description("Time from the event outcome's Kafka record timestamp to its receipt by the consumer")
+            .tags(partitionTags(topic, partition))
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+        return new OutcomeSource(topic, partition, timestamp);
+    }
+    
+    private Timer consumeTimer(String topic, int partition, String mode) {
+        return Timer.builder("settlement.outcome.consume")
+            .description("Time to handle a consumed event outcome record or batch")
+            .tags(partitionTags(topic, partition).and("mode", mode))
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+    
+    private AtomicInteger inFlight(String topic, int partition) {
+        return inFlightRecords.computeIfAbsent(topic + '#' + partition, key ->
+            meterRegistry.gauge("settlement.outcome.inflight", partitionTags(topic, partition), new AtomicInteger()));
+    }
+    
+    private static Tags partitionTags(String topic, int partition) {
+        return Tags.of("topic", topic, "partition", String.valueOf(partition));
+    }
 }
@@ -0,0 +1,118 @@
+package com.sportygroup.consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Offsets of event outcome records handed to the settlement executor, per partition.
+ * Records settle out of order, so a partition is committed up to its lowest offset still being
+ * settled, or past the highest offset received once none is; a commit never skips an unsettled record.
+ * Records are received and offsets committed on the consumer thread that owns the partition;
+ * only completion happens on the settlement workers.
+ */
+@Component
+@Slf4j
+public class PendingOffsets implements ConsumerAwareRebalanceListener {
+
+    private final Map<TopicPartition, Partition> partitions = new ConcurrentHashMap<>();
+
+    @Value("${app.settlement.executor.commit-interval-ms:200}")
+    private long commitIntervalMs;
+
+    void received(TopicPartition partition, long offset) {
+        partitions.computeIfAbsent(partition, key -> new Partition()).received(offset);
+    }
+
+    void completed(TopicPartition partition, long offset) {
+        // Absent once the partition has been revoked; its new owner re-reads the record
+        Partition tracked = partitions.get(partition);
+        if (tracked != null) {
+            tracked.pending.remove(offset);
+        }
+    }
+
+    /**
+     * Record a record that is not handed to the settlement executor, such as one recovered by the
+     * container's error handler, as settled. Called on the consumer thread.
+     */
+    public void skipped(TopicPartition partition, long offset) {
+        received(partition, offset);
+        completed(partition, offset);
+    }
+
+    /**
+     * Commit the consumer's partitions that have advanced, if the commit interval has passed for them
+     */
+    void commit(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committable(consumer.assignment(), false);
+        if (!offsets.isEmpty()) {
+            consumer.commitAsync(offsets, (committed, exception) -> {
+                if (exception != null) {
+                    log.warn("Failed to commit settled event outcome offsets {}", committed, exception);
+                }
+            });
+        }
+    }
+
+    /**
+     * Commit what has settled on the revoked partitions before they move to another consumer,
+     * then stop tracking them. Records still settling are redelivered to the new owner, which
+     * skips them if they finished settling in the meantime.
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committable(revoked, true);
+        revoked.forEach(partitions::remove);
+        if (!offsets.isEmpty()) {
+            try {
+                consumer.commitSync(offsets);
+            } catch (RuntimeException e) {
+                log.warn("Failed to commit settled event outcome offsets {} on revocation", offsets, e);
+            }
+        }
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> committable(Collection<TopicPartition> owned, boolean force) {
+        long now = System.currentTimeMillis();
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : owned) {
+            Partition tracked = partitions.get(partition);
+            if (tracked == null) {
+                continue;
+            }
+            Long lowestPending = tracked.pending.ceiling(Long.MIN_VALUE);
+            long offset = lowestPending != null ? lowestPending : tracked.next;
+            if (offset > tracked.committed && (force || now - tracked.committedAt >= commitIntervalMs)) {
+                offsets.put(partition, new OffsetAndMetadata(offset));
+                tracked.committed = offset;
+                tracked.committedAt = now;
+            }
+        }
+        return offsets;
+    }
+
+    private static final class Partition {
+
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        // Only read and written on the owning consumer thread
+        private long next = -1;
+        private long committed = -1;
+        private long committedAt;
+
+        private void received(long offset) {
+            pending.add(offset);
+            next = offset + 1;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.sportygroup.controller;
 
+import com.sportygroup.dto.BetPage;
 import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.dto.CreateBetsRequest;
 import com.sportygroup.model.Bet;
+import com.sportygroup.service.BetPlacementBuffer;
 import com.sportygroup.service.BetService;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,23 +30,25 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/bets")
 @CrossOrigin(origins = "*")
+@Validated
 @RequiredArgsConstructor
 @Slf4j
 public class BetController {
     
     private final BetService betService;
+    private final BetPlacementBuffer betPlacementBuffer;
     
     /**
-     * Create a new bet
+     * Create a new bet, through group commit when enabled
      * POST /api/bets
      */
     @PostMapping
     public ResponseEntity<Bet> createBet(@Valid @RequestBody CreateBetRequest request) {
-        log.info("Received request to create bet: {}", request);
+        log.debug("Received request to create bet: {}", request);
         
         try {
-            Bet bet = betService.createBet(request);
-            log.info("Successfully created bet with ID: {}", bet.getBetId());
+            Bet bet = betPlacementBuffer.createBet(request);
+            log.debug("Successfully created bet with ID: {}", bet.getBetId());
             return ResponseEntity.status(HttpStatus.CREATED).body(bet);
             
         } catch (Exception e) {
@@ -44,6 +57,25 @@ public class BetController {
         }
     }
     
+    /**
+     * Create many bets at once using batched inserts
+     * POST /api/bets/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Bet>> createBets(@Valid @RequestBody CreateBetsRequest request) {
+        log.info("Received request to create {} bets", request.getBets().size());
+        
+        try {
+            List<Bet> bets = betService.createBets(request.getBets());
+            log.info("Successfully created {} bets", bets.size());
+            return ResponseEntity.status(HttpStatus.CREATED).body(bets);
+            
+        } catch (Exception e) {
+            log.error("Error creating bets", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Get all bets
      * GET /api/bets
@@ -63,6 +95,37 @@ public class BetController {
         }
     }
     
+    /**
+     * Get one keyset page of all bets, ordered by ID
+     * GET /api/bets/page?afterId={lastBetId}&limit={n}
+     */
+    @GetMapping("/page")
+    public ResponseEntity<BetPage> getBetsPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        log.info("Received request to get bets page after ID: {}", afterId);
+        
+        try {
+            return ResponseEntity.ok(betService.getBetsPage(afterId, limit));
+            
+        } catch (Exception e) {
+            log.error("Error retrieving bets page after ID: {}", afterId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Stream all bets as newline-delimited JSON
+     * GET /api/bets/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBets() {
+        log.info("Received request to stream all bets");
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(betService::writeAllBets);
+    }
+    
     /**
      * Get bet by ID
      * GET /api/bets/{id}
@@ -105,4 +168,46 @@ public class BetController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    /**
+     * Get one keyset page of a user's bets, ordered by creation time
+     * GET /api/bets/user/{userId}/page?afterCreatedAt={createdAt}&afterId={lastBetId}&limit={n}
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<BetPage> getBetsPageByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        log.info("Received request to get bets page for user: {} after: {}/{}", userId, afterCreatedAt, afterId);
+        
+        try {
+            return ResponseEntity.ok(betService.getBetsPageByUserId(userId, afterCreatedAt, afterId, limit));
+            
+        } catch (Exception e) {
+            log.error("Error retrieving bets page for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Stream a user's bets as newline-delimited JSON
+     * GET /api/bets/user/{userId}/stream
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBetsByUserId(@PathVariable String userId) {
+        log.info("Received request to stream bets for user: {}", userId);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> betService.writeBetsByUserId(userId, out));
+    }
+    
+    /**
+     * Out-of-range request parameters, such as a page limit above 1000, are a bad request
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Void> handleConstraintViolation(ConstraintViolationException e) {
+        log.warn("Rejected bet request: {}", e.getMessage());
+        return ResponseEntity.badRequest().build();
+    }
 }
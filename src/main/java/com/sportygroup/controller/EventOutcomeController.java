@@ -1,14 +1,21 @@
 package com.sportygroup.controller;
 
+import com.sportygroup.dto.EventExposureResponse;
 import com.sportygroup.dto.EventOutcomeRequest;
+import com.sportygroup.dto.EventOutcomesRequest;
+import com.sportygroup.dto.OutcomeAck;
 import com.sportygroup.model.EventOutcome;
 import com.sportygroup.service.EventOutcomeService;
+import com.sportygroup.service.ExposureTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST Controller for event outcomes
  */
@@ -20,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class EventOutcomeController {
     
     private final EventOutcomeService eventOutcomeService;
+    private final ExposureTracker exposureTracker;
     
     /**
      * Publish event outcome to Kafka
@@ -27,16 +35,10 @@ public class EventOutcomeController {
      */
     @PostMapping("/outcomes")
     public ResponseEntity<String> publishEventOutcome(@Valid @RequestBody EventOutcomeRequest request) {
-        log.info("Received request to publish event outcome: {}", request);
+        log.debug("Received request to publish event outcome: {}", request);
         
         try {
-            EventOutcome eventOutcome = new EventOutcome(
-                request.getEventId(),
-                request.getEventName(),
-                request.getEventWinnerId()
-            );
-            
-            eventOutcomeService.publishEventOutcome(eventOutcome);
+            eventOutcomeService.publishEventOutcome(request.toEventOutcome());
             
             String response = String.format("Event outcome published successfully for event: %s", 
                 request.getEventId());
@@ -50,4 +52,45 @@ public class EventOutcomeController {
                 .body("Error publishing event outcome: " + e.getMessage());
         }
     }
+    
+    /**
+     * Publish many event outcomes to Kafka and return the broker acknowledgement of each, in request order.
+     * The request thread is released while the records are in flight.
+     * POST /api/events/outcomes/batch
+     */
+    @PostMapping("/outcomes/batch")
+    public CompletableFuture<ResponseEntity<List<OutcomeAck>>> publishEventOutcomes(
+            @Valid @RequestBody EventOutcomesRequest request) {
+        log.info("Received request to publish {} event outcomes", request.getOutcomes().size());
+        
+        try {
+            List<EventOutcome> eventOutcomes = request.getOutcomes().stream()
+                .map(EventOutcomeRequest::toEventOutcome)
+                .toList();
+            
+            return eventOutcomeService.publishEventOutcomes(eventOutcomes)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    log.error("Error publishing event outcomes", e);
+                    return ResponseEntity.internalServerError().build();
+                });
+            
+        } catch (Exception e) {
+            log.error("Error publishing event outcomes", e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+    
+    /**
+     * Open stake and potential payout of an event per market selection, from in-memory counters
+     * GET /api/events/{eventId}/exposure
+     */
+    @GetMapping("/{eventId}/exposure")
+    public ResponseEntity<EventExposureResponse> getEventExposure(@PathVariable String eventId) {
+        log.debug("Received request to get exposure of event: {}", eventId);
+        
+        return exposureTracker.get(eventId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
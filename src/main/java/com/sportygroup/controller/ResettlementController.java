@@ -0,0 +1,60 @@
+package com.sportygroup.controller;
+
+import com.sportygroup.dto.EventOutcomeRequest;
+import com.sportygroup.dto.ResettlementReport;
+import com.sportygroup.dto.ResettlementRequest;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.ResettlementService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for replaying settlement of already settled bets
+ */
+@RestController
+@RequestMapping("/api/resettlements")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@Slf4j
+public class ResettlementController {
+    
+    private final ResettlementService resettlementService;
+    
+    /**
+     * Start a resettlement run, or resume one by resubmitting its run ID; the run continues in the background
+     * POST /api/resettlements
+     */
+    @PostMapping
+    public ResponseEntity<ResettlementReport> startResettlement(@Valid @RequestBody ResettlementRequest request) {
+        log.info("Received request to start resettlement run: {}", request.getRunId());
+        
+        List<EventOutcome> outcomes = request.getOutcomes() == null ? List.of() : request.getOutcomes().stream()
+            .map(EventOutcomeRequest::toEventOutcome)
+            .toList();
+        try {
+            ResettlementReport report = resettlementService.start(request.getRunId(), request.getEventIds(),
+                request.getSettledFrom(), request.getSettledTo(), outcomes, request.isRepublishWinners());
+            return ResponseEntity.accepted().body(report);
+        } catch (IllegalStateException e) {
+            log.warn("Rejected resettlement run {}: {}", request.getRunId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    /**
+     * Progress and throughput of a run
+     * GET /api/resettlements/{runId}
+     */
+    @GetMapping("/{runId}")
+    public ResponseEntity<ResettlementReport> getResettlement(@PathVariable String runId) {
+        return resettlementService.getReport(runId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,26 @@
+package com.sportygroup.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.sportygroup.model.Bet;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated bet listing.
+ * The next* fields are the cursor to pass back for the following page and are null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BetPage {
+    
+    private List<Bet> bets;
+    private Long nextAfterId;
+    
+    // ISO-8601 so it can be passed straight back as the afterCreatedAt query parameter
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime nextAfterCreatedAt;
+}
@@ -1,5 +1,6 @@
 package com.sportygroup.dto;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -31,4 +32,8 @@ public class CreateBetRequest {
     @NotNull(message = "Bet amount is required")
     @Positive(message = "Bet amount must be positive")
     private BigDecimal betAmount;
+    
+    // Optional: without captured odds the bet is paid at the odds provider's price on settlement
+    @DecimalMin(value = "1.0", message = "Odds must be at least 1.0")
+    private BigDecimal odds;
 }
@@ -0,0 +1,27 @@
+package com.sportygroup.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for creating many bets in one request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateBetsRequest {
+
+    /**
+     * Largest batch accepted in one request, the same bound as a page of bets
+     */
+    public static final int MAX_BETS = 1000;
+    
+    @NotEmpty(message = "At least one bet is required")
+    @Size(max = MAX_BETS, message = "At most " + MAX_BETS + " bets per request")
+    private List<@Valid CreateBetRequest> bets;
+}
@@ -0,0 +1,37 @@
+package com.sportygroup.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Open stake and potential payout of an event, in total and per market selection.
+ * Potential payout covers bets with captured odds; unpricedStake is the stake of bets that settle
+ * at the odds provider's price, whose payout is not known until settlement.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventExposureResponse {
+    
+    private String eventId;
+    private long openBets;
+    private BigDecimal totalStake;
+    private BigDecimal totalUnpricedStake;
+    private List<Selection> selections;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Selection {
+        private String eventMarketId;
+        private String eventWinnerId;
+        private long openBets;
+        private BigDecimal stake;
+        private BigDecimal potentialPayout;
+        private BigDecimal unpricedStake;
+    }
+}
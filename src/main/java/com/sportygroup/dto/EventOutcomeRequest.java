@@ -1,8 +1,15 @@
 package com.sportygroup.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sportygroup.model.EventOutcome;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import lombok.*;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Data Transfer Object for publishing event outcomes
  */
@@ -18,6 +25,34 @@ public class EventOutcomeRequest {
     @NotBlank(message = "Event name is required")
     private String eventName;
     
-    @NotBlank(message = "Event winner ID is required")
     private String eventWinnerId;
+    
+    // Winning selection per market ID; markets not listed fall back to eventWinnerId
+    private Map<String, String> marketResults;
+    
+    // Defaults to 1; publish a higher version to correct a result
+    @Positive(message = "Outcome version must be positive")
+    private Long outcomeVersion;
+    
+    // Event cancelled or abandoned: every bet is voided and refunded
+    private boolean cancelled;
+    
+    // Markets whose bets are voided and refunded, whatever their results say
+    private Set<String> voidedMarkets;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Event winner ID, market results or voids are required")
+    public boolean isResulted() {
+        return (eventWinnerId != null && !eventWinnerId.isBlank())
+            || (marketResults != null && !marketResults.isEmpty())
+            || cancelled
+            || (voidedMarkets != null && !voidedMarkets.isEmpty());
+    }
+    
+    /**
+     * Event outcome to publish for this request
+     */
+    public EventOutcome toEventOutcome() {
+        return new EventOutcome(eventId, eventName, eventWinnerId, marketResults, outcomeVersion, cancelled, voidedMarkets);
+    }
 }
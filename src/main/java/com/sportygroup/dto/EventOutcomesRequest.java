@@ -0,0 +1,20 @@
+package com.sportygroup.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for publishing many event outcomes in one request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventOutcomesRequest {
+    
+    @NotEmpty(message = "At least one event outcome is required")
+    private List<@Valid EventOutcomeRequest> outcomes;
+}
@@ -0,0 +1,29 @@
+package com.sportygroup.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Broker acknowledgement of one published event outcome.
+ * On success partition and offset locate the record; on failure they are null and error says why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OutcomeAck {
+    
+    private String eventId;
+    private Integer partition;
+    private Long offset;
+    private String error;
+    
+    public static OutcomeAck published(String eventId, int partition, long offset) {
+        return new OutcomeAck(eventId, partition, offset, null);
+    }
+    
+    public static OutcomeAck failed(String eventId, Throwable cause) {
+        return new OutcomeAck(eventId, null, null, cause.getMessage());
+    }
+}
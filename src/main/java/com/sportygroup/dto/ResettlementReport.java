@@ -0,0 +1,35 @@
+package com.sportygroup.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and throughput of a settlement replay run; counts cover this submission of the run
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResettlementReport {
+    
+    public enum Status { RUNNING, COMPLETED, FAILED }
+    
+    private String runId;
+    private Status status;
+    private int events;
+    private int eventsCompleted;
+    private int eventsSkipped;
+    // Markets left out of inferred outcomes because their won bets are on more than one selection
+    private int marketsSkipped;
+    private long betsScanned;
+    private long betsChanged;
+    private long settlementsRepublished;
+    private long elapsedMillis;
+    private double betsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
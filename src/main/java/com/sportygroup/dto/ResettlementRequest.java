@@ -0,0 +1,53 @@
+package com.sportygroup.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for starting or resuming a settlement replay.
+ * The events are those listed in eventIds, those of the given outcomes, and those with bets
+ * settled in [settledFrom, settledTo). Events without an outcome here are re-checked against
+ * the winners implied by their own won bets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResettlementRequest {
+    
+    // Resubmitting a run ID continues that run after its last committed chunk of each event
+    @NotBlank(message = "Run ID is required")
+    private String runId;
+    
+    private List<String> eventIds;
+    
+    private LocalDateTime settledFrom;
+    
+    private LocalDateTime settledTo;
+    
+    // Corrected results to settle against; take precedence over inferred winners
+    private List<@Valid EventOutcomeRequest> outcomes;
+    
+    // Also republish unchanged winning bets, to send payouts recomputed with current odds
+    private boolean republishWinners;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Event IDs, outcomes or a settled time range are required")
+    public boolean isScoped() {
+        return (eventIds != null && !eventIds.isEmpty())
+            || (outcomes != null && !outcomes.isEmpty())
+            || (settledFrom != null && settledTo != null);
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "Settled time range must end after it starts")
+    public boolean isRangeOrdered() {
+        return settledFrom == null || settledTo == null || settledFrom.isBefore(settledTo);
+    }
+}
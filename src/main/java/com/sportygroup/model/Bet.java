@@ -1,6 +1,7 @@
 package com.sportygroup.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -10,7 +11,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
- * Represents a sports bet placed by a user
+ * Represents a sports bet placed by a user.
+ * The table and its indexes are created by the Flyway migrations in db/migration.
  */
 @Entity
 @Table(name = "bets")
@@ -21,8 +23,10 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Bet {
     
+    // Pooled sequence: one sequence call per 50 IDs, and unlike IDENTITY it keeps JDBC insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bet_seq")
+    @SequenceGenerator(name = "bet_seq", sequenceName = "bet_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long betId;
     
@@ -47,6 +51,11 @@ public class Bet {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal betAmount;
     
+    // Decimal odds captured at placement; null settles at the odds provider's price
+    @DecimalMin("1.0")
+    @Column(precision = 10, scale = 4)
+    private BigDecimal odds;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -56,6 +65,14 @@ public class Bet {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
     
+    @Column
+    private LocalDateTime settledAt;
+    
+    // Optimistic lock: a settler holding a stale copy of the bet fails instead of settling it twice
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Custom constructor for business logic
     public Bet(String userId, String eventId, String eventMarketId, String eventWinnerId, BigDecimal betAmount) {
         this.userId = userId;
@@ -1,43 +1,48 @@
 package com.sportygroup.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.*;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 /**
- * Represents a bet settlement message for RocketMQ
+ * Represents a bet settlement message for RocketMQ.
+ * The payout is held in minor units (cents); on the wire it stays the decimal payoutAmount.
  */
-@Data
-@NoArgsConstructor
-@Builder
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
-public class BetSettlement {
-    
-    @EqualsAndHashCode.Include
-    private Long betId;
-    private String userId;
-    private BetStatus settlementStatus;
-    private BigDecimal payoutAmount;
-    @Builder.Default
-    private LocalDateTime settlementTime = LocalDateTime.now();
-    private String eventId;
+@JsonPropertyOrder({"betId", "userId", "settlementStatus", "payoutAmount", "settlementTime", "eventId"})
+public record BetSettlement(
+        Long betId,
+        String userId,
+        BetStatus settlementStatus,
+        @JsonIgnore long payoutCents,
+        LocalDateTime settlementTime,
+        String eventId) {
 
     @JsonCreator
-    public BetSettlement(
+    public static BetSettlement fromJson(
             @JsonProperty("betId") Long betId,
             @JsonProperty("userId") String userId,
             @JsonProperty("settlementStatus") BetStatus settlementStatus,
             @JsonProperty("payoutAmount") BigDecimal payoutAmount,
             @JsonProperty("settlementTime") LocalDateTime settlementTime,
             @JsonProperty("eventId") String eventId) {
-        this.betId = betId;
-        this.userId = userId;
-        this.settlementStatus = settlementStatus;
-        this.payoutAmount = payoutAmount;
-        this.settlementTime = settlementTime != null ? settlementTime : LocalDateTime.now();
-        this.eventId = eventId;
+        return new BetSettlement(betId, userId, settlementStatus, payoutAmount == null ? 0 : toCents(payoutAmount),
+            settlementTime != null ? settlementTime : LocalDateTime.now(), eventId);
+    }
+
+    @JsonProperty("payoutAmount")
+    public BigDecimal payoutAmount() {
+        return BigDecimal.valueOf(payoutCents, 2);
+    }
+
+    /**
+     * Amount in cents, rounded half-even to two decimals
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
     }
 }
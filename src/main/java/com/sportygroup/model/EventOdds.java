@@ -0,0 +1,41 @@
+package com.sportygroup.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the decimal odds of one event, by market and selection
+ */
+public final class EventOdds {
+    
+    private static final EventOdds EMPTY = new EventOdds(null, Collections.emptyMap());
+    
+    private final String eventId;
+    private final Map<String, Map<String, BigDecimal>> oddsByMarket;
+    
+    public EventOdds(String eventId, Map<String, Map<String, BigDecimal>> oddsByMarket) {
+        this.eventId = eventId;
+        this.oddsByMarket = oddsByMarket;
+    }
+    
+    public static EventOdds empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Odds of a selection in a market, or null if the snapshot has no price for it
+     */
+    public BigDecimal get(String marketId, String selectionId) {
+        Map<String, BigDecimal> selections = oddsByMarket.get(marketId);
+        return selections == null ? null : selections.get(selectionId);
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public boolean isEmpty() {
+        return oddsByMarket.isEmpty();
+    }
+}
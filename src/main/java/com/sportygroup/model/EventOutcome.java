@@ -1,15 +1,24 @@
 package com.sportygroup.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
- * Represents a sports event outcome
+ * Represents a sports event outcome.
+ * marketResults maps a market ID to its winning selection; eventWinnerId, when set,
+ * is the winning selection for every market that is not listed there.
+ * outcomeVersion increases when the feed corrects a result; replays of a version are ignored.
+ * A cancelled event voids every bet; voidedMarkets voids the bets of the listed markets only,
+ * taking precedence over any result given for them. Voided bets are refunded their stake.
  */
 @Data
 @NoArgsConstructor
-@Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class EventOutcome {
     
@@ -17,14 +26,57 @@ public class EventOutcome {
     private String eventId;
     private String eventName;
     private String eventWinnerId;
+    private Map<String, String> marketResults;
+    private Long outcomeVersion;
+    
+    // Left out of the JSON unless set, so regular outcomes are written as before
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean cancelled;
+    
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Set<String> voidedMarkets;
+    
+    // Set by the consumer, not part of the message
+    @JsonIgnore
+    private OutcomeSource source;
+
+    public EventOutcome(String eventId, String eventName, String eventWinnerId) {
+        this(eventId, eventName, eventWinnerId, null);
+    }
+
+    public EventOutcome(String eventId, String eventName, String eventWinnerId, Map<String, String> marketResults) {
+        this(eventId, eventName, eventWinnerId, marketResults, null);
+    }
+
+    public EventOutcome(String eventId, String eventName, String eventWinnerId, Map<String, String> marketResults,
+                        Long outcomeVersion) {
+        this(eventId, eventName, eventWinnerId, marketResults, outcomeVersion, null, null);
+    }
 
     @JsonCreator
+    @Builder
     public EventOutcome(
             @JsonProperty("eventId") String eventId,
             @JsonProperty("eventName") String eventName,
-            @JsonProperty("eventWinnerId") String eventWinnerId) {
+            @JsonProperty("eventWinnerId") String eventWinnerId,
+            @JsonProperty("marketResults") Map<String, String> marketResults,
+            @JsonProperty("outcomeVersion") Long outcomeVersion,
+            @JsonProperty("cancelled") Boolean cancelled,
+            @JsonProperty("voidedMarkets") Set<String> voidedMarkets) {
         this.eventId = eventId;
         this.eventName = eventName;
         this.eventWinnerId = eventWinnerId;
+        this.marketResults = marketResults;
+        this.outcomeVersion = outcomeVersion;
+        this.cancelled = Boolean.TRUE.equals(cancelled);
+        this.voidedMarkets = voidedMarkets;
+    }
+
+    /**
+     * Whether the outcome voids any bets
+     */
+    @JsonIgnore
+    public boolean hasVoids() {
+        return cancelled || (voidedMarkets != null && !voidedMarkets.isEmpty());
     }
 }
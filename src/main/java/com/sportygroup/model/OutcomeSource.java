@@ -0,0 +1,8 @@
+package com.sportygroup.model;
+
+/**
+ * Kafka coordinates of a consumed event outcome, carried along for metrics.
+ * timestamp is the record timestamp in epoch milliseconds.
+ */
+public record OutcomeSource(String topic, int partition, long timestamp) {
+}
@@ -0,0 +1,37 @@
+package com.sportygroup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Record of an event outcome version that has been settled
+ */
+@Entity
+@Table(name = "processed_outcomes")
+@IdClass(ProcessedOutcome.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedOutcome {
+    
+    @Id
+    private String eventId;
+    
+    @Id
+    private Long outcomeVersion;
+    
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String eventId;
+        private Long outcomeVersion;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sportygroup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one event in a resettlement run: the highest bet ID of the last committed chunk
+ */
+@Entity
+@Table(name = "resettlement_checkpoints")
+@IdClass(ResettlementCheckpoint.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResettlementCheckpoint {
+    
+    @Id
+    private String runId;
+    
+    @Id
+    private String eventId;
+    
+    @Column(nullable = false)
+    private Long lastBetId;
+    
+    @Column(nullable = false)
+    private Long scannedCount;
+    
+    @Column(nullable = false)
+    private Long changedCount;
+    
+    @Column(nullable = false)
+    private boolean completed;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String runId;
+        private String eventId;
+    }
+}
@@ -0,0 +1,30 @@
+package com.sportygroup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a chunked event settlement: the highest bet ID of the last committed chunk
+ */
+@Entity
+@Table(name = "settlement_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementCheckpoint {
+    
+    @Id
+    private String eventId;
+    
+    @Column(nullable = false)
+    private Long lastBetId;
+    
+    @Column(nullable = false)
+    private Long settledCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
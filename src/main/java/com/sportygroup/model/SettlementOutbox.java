@@ -0,0 +1,79 @@
+package com.sportygroup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bet settlement waiting to be relayed to RocketMQ.
+ * Rows are written in the transaction that settles the bet and deleted once the broker has acknowledged them.
+ * The shard is derived from the event ID, so all settlements of an event are relayed by one worker in order.
+ */
+@Entity
+@Table(name = "settlement_outbox", indexes = {
+    @Index(name = "idx_settlement_outbox_shard", columnList = "shard, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_outbox_seq")
+    @SequenceGenerator(name = "settlement_outbox_seq", sequenceName = "settlement_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Integer shard;
+    
+    @Column(nullable = false)
+    private String eventId;
+    
+    @Column(nullable = false)
+    private Long betId;
+    
+    @Column(nullable = false)
+    private String userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BetStatus settlementStatus;
+    
+    @Column(nullable = false)
+    private long payoutCents;
+    
+    @Column(nullable = false)
+    private LocalDateTime settlementTime;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Kafka record of the outcome, null if it was not consumed from Kafka
+    private String sourceTopic;
+    
+    private Integer sourcePartition;
+    
+    private Long sourceTimestamp;
+    
+    public static SettlementOutbox of(BetSettlement settlement, int shard, LocalDateTime createdAt, OutcomeSource source) {
+        return SettlementOutbox.builder()
+            .shard(shard)
+            .eventId(settlement.eventId())
+            .betId(settlement.betId())
+            .userId(settlement.userId())
+            .settlementStatus(settlement.settlementStatus())
+            .payoutCents(settlement.payoutCents())
+            .settlementTime(settlement.settlementTime())
+            .createdAt(createdAt)
+            .sourceTopic(source == null ? null : source.topic())
+            .sourcePartition(source == null ? null : source.partition())
+            .sourceTimestamp(source == null ? null : source.timestamp())
+            .build();
+    }
+    
+    public BetSettlement toSettlement() {
+        return new BetSettlement(betId, userId, settlementStatus, payoutCents, settlementTime, eventId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sportygroup.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease of one outbox shard by a relay instance, valid until expiresAt
+ */
+@Entity
+@Table(name = "settlement_outbox_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SettlementOutboxLease {
+    
+    @Id
+    private Integer shard;
+    
+    @Column(nullable = false)
+    private String owner;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,8 @@
+package com.sportygroup.repository;
+
+/**
+ * Lowest and highest bet ID of a set of bets and how many there are.
+ * Both IDs are null when the set is empty.
+ */
+public record BetIdRange(Long minBetId, Long maxBetId, long count) {
+}
@@ -2,12 +2,22 @@ package com.sportygroup.repository;
 
 import com.sportygroup.model.Bet;
 import com.sportygroup.model.BetStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for Bet entity operations
@@ -40,4 +50,173 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     List<Bet> findLosingBets(@Param("eventId") String eventId, 
                              @Param("winnerId") String winnerId, 
                              @Param("status") BetStatus status);
+    
+    /**
+     * Find the bets of an event, within a bet ID range, that were settled in the same settlement run
+     */
+    List<Bet> findByEventIdAndSettledAtAndBetIdBetween(String eventId, LocalDateTime settledAt,
+                                                       Long fromBetId, Long toBetId);
+    
+    /**
+     * Lowest and highest ID and number of an event's bets in a given status
+     */
+    @Query("SELECT new com.sportygroup.repository.BetIdRange(MIN(b.betId), MAX(b.betId), COUNT(b)) " +
+           "FROM Bet b WHERE b.eventId = :eventId AND b.status = :status")
+    BetIdRange findBetIdRange(@Param("eventId") String eventId, @Param("status") BetStatus status);
+    
+    /**
+     * Mark all pending bets on the winning selection of an event, within a bet ID range, as won in a single statement
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.eventWinnerId = :winnerId AND b.status = :status " +
+           "AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int settleWinningBets(@Param("eventId") String eventId,
+                          @Param("winnerId") String winnerId,
+                          @Param("status") BetStatus status,
+                          @Param("newStatus") BetStatus newStatus,
+                          @Param("settledAt") LocalDateTime settledAt,
+                          @Param("fromBetId") long fromBetId,
+                          @Param("toBetId") long toBetId);
+    
+    /**
+     * Mark all pending bets on the winning selection of one market of an event, within a bet ID range, as won
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.eventMarketId = :marketId AND b.eventWinnerId = :winnerId " +
+           "AND b.status = :status AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int settleMarketWinningBets(@Param("eventId") String eventId,
+                                @Param("marketId") String marketId,
+                                @Param("winnerId") String winnerId,
+                                @Param("status") BetStatus status,
+                                @Param("newStatus") BetStatus newStatus,
+                                @Param("settledAt") LocalDateTime settledAt,
+                                @Param("fromBetId") long fromBetId,
+                                @Param("toBetId") long toBetId);
+    
+    /**
+     * Mark all remaining pending bets in the given markets of an event, within a bet ID range, as lost
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.eventMarketId IN :marketIds AND b.status = :status " +
+           "AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int settleMarketLosingBets(@Param("eventId") String eventId,
+                               @Param("marketIds") Collection<String> marketIds,
+                               @Param("status") BetStatus status,
+                               @Param("newStatus") BetStatus newStatus,
+                               @Param("settledAt") LocalDateTime settledAt,
+                               @Param("fromBetId") long fromBetId,
+                               @Param("toBetId") long toBetId);
+    
+    /**
+     * Mark all remaining pending bets of an event, within a bet ID range, as lost in a single statement
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.eventWinnerId != :winnerId AND b.status = :status " +
+           "AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int settleLosingBets(@Param("eventId") String eventId,
+                         @Param("winnerId") String winnerId,
+                         @Param("status") BetStatus status,
+                         @Param("newStatus") BetStatus newStatus,
+                         @Param("settledAt") LocalDateTime settledAt,
+                         @Param("fromBetId") long fromBetId,
+                         @Param("toBetId") long toBetId);
+    
+    /**
+     * Mark all pending bets of an event, within a bet ID range, as void in a single statement
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.status = :status AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int voidBets(@Param("eventId") String eventId,
+                 @Param("status") BetStatus status,
+                 @Param("newStatus") BetStatus newStatus,
+                 @Param("settledAt") LocalDateTime settledAt,
+                 @Param("fromBetId") long fromBetId,
+                 @Param("toBetId") long toBetId);
+    
+    /**
+     * Mark all pending bets in the given markets of an event, within a bet ID range, as void
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :newStatus, b.settledAt = :settledAt, b.version = b.version + 1 " +
+           "WHERE b.eventId = :eventId AND b.eventMarketId IN :marketIds AND b.status = :status " +
+           "AND b.betId BETWEEN :fromBetId AND :toBetId")
+    int voidMarketBets(@Param("eventId") String eventId,
+                       @Param("marketIds") Collection<String> marketIds,
+                       @Param("status") BetStatus status,
+                       @Param("newStatus") BetStatus newStatus,
+                       @Param("settledAt") LocalDateTime settledAt,
+                       @Param("fromBetId") long fromBetId,
+                       @Param("toBetId") long toBetId);
+    
+    /**
+     * Next chunk of an event's bets in a given status, ordered by ID, starting after the given ID
+     */
+    List<Bet> findByEventIdAndStatusAndBetIdGreaterThanOrderByBetIdAsc(String eventId, BetStatus status,
+                                                                       Long betId, Pageable pageable);
+    
+    /**
+     * Next chunk of an event's bets in any of the given statuses, ordered by ID, starting after the given ID
+     */
+    List<Bet> findByEventIdAndStatusInAndBetIdGreaterThanOrderByBetIdAsc(String eventId, Collection<BetStatus> statuses,
+                                                                         Long betId, Pageable pageable);
+    
+    /**
+     * Events with at least one bet settled in [from, to)
+     */
+    @Query("SELECT DISTINCT b.eventId FROM Bet b WHERE b.settledAt >= :from AND b.settledAt < :to ORDER BY b.eventId")
+    List<String> findEventIdsSettledBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Selections of an event's bets in a given status, one per market and selection, ordered by market and selection
+     */
+    @Query("SELECT DISTINCT new com.sportygroup.repository.MarketWinner(b.eventMarketId, b.eventWinnerId) " +
+           "FROM Bet b WHERE b.eventId = :eventId AND b.status = :status ORDER BY b.eventMarketId, b.eventWinnerId")
+    List<MarketWinner> findSelections(@Param("eventId") String eventId, @Param("status") BetStatus status);
+    
+    /**
+     * Keyset page of all bets ordered by ID, starting after the given ID
+     */
+    List<Bet> findByBetIdGreaterThanOrderByBetIdAsc(Long betId, Pageable pageable);
+    
+    /**
+     * First keyset page of a user's bets ordered by creation time
+     */
+    List<Bet> findByUserIdOrderByCreatedAtAscBetIdAsc(String userId, Pageable pageable);
+    
+    /**
+     * Keyset page of a user's bets ordered by creation time, starting after the given (createdAt, betId) cursor
+     */
+    @Query("SELECT b FROM Bet b WHERE b.userId = :userId " +
+           "AND (b.createdAt > :createdAt OR (b.createdAt = :createdAt AND b.betId > :betId)) " +
+           "ORDER BY b.createdAt ASC, b.betId ASC")
+    List<Bet> findUserBetsAfter(@Param("userId") String userId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("betId") Long betId,
+                                Pageable pageable);
+    
+    /**
+     * Stream all bets ordered by ID off a JDBC cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Bet b ORDER BY b.betId")
+    Stream<Bet> streamAll();
+    
+    /**
+     * Stream a user's bets ordered by creation time off a JDBC cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Bet b WHERE b.userId = :userId ORDER BY b.createdAt, b.betId")
+    Stream<Bet> streamByUserId(@Param("userId") String userId);
+    
+    /**
+     * Stream the bets with a status off a JDBC cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Bet b WHERE b.status = :status")
+    Stream<Bet> streamByStatus(@Param("status") BetStatus status);
 }
@@ -0,0 +1,7 @@
+package com.sportygroup.repository;
+
+/**
+ * A market of an event and a selection that won it
+ */
+public record MarketWinner(String eventMarketId, String eventWinnerId) {
+}
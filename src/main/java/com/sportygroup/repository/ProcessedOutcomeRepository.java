@@ -0,0 +1,34 @@
+package com.sportygroup.repository;
+
+import com.sportygroup.model.ProcessedOutcome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for processed event outcomes
+ */
+@Repository
+public interface ProcessedOutcomeRepository extends JpaRepository<ProcessedOutcome, ProcessedOutcome.Key> {
+    
+    /**
+     * Highest processed outcome version of an event, or null if none has been processed
+     */
+    @Query("SELECT MAX(p.outcomeVersion) FROM ProcessedOutcome p WHERE p.eventId = :eventId")
+    Long findLatestVersion(@Param("eventId") String eventId);
+    
+    /**
+     * Insert a processed outcome. Unlike save(), which merges, this fails on an existing row,
+     * so a duplicate claim surfaces as a constraint violation.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_outcomes (event_id, outcome_version, processed_at) " +
+                   "VALUES (:eventId, :outcomeVersion, :processedAt)", nativeQuery = true)
+    int insert(@Param("eventId") String eventId,
+               @Param("outcomeVersion") long outcomeVersion,
+               @Param("processedAt") LocalDateTime processedAt);
+}
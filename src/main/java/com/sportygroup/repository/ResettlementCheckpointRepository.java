@@ -0,0 +1,12 @@
+package com.sportygroup.repository;
+
+import com.sportygroup.model.ResettlementCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for resettlement run checkpoints
+ */
+@Repository
+public interface ResettlementCheckpointRepository extends JpaRepository<ResettlementCheckpoint, ResettlementCheckpoint.Key> {
+}
@@ -0,0 +1,12 @@
+package com.sportygroup.repository;
+
+import com.sportygroup.model.SettlementCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for chunked settlement checkpoints
+ */
+@Repository
+public interface SettlementCheckpointRepository extends JpaRepository<SettlementCheckpoint, String> {
+}
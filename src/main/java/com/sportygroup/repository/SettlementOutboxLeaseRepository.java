@@ -0,0 +1,50 @@
+package com.sportygroup.repository;
+
+import com.sportygroup.model.SettlementOutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for outbox shard leases
+ */
+@Repository
+public interface SettlementOutboxLeaseRepository extends JpaRepository<SettlementOutboxLease, Integer> {
+    
+    /**
+     * Take or renew a shard's lease until expiresAt, if the owner already holds it or it has expired.
+     * Returns 1 if the owner now holds the lease, or 0 if another owner does or the shard has no lease row.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE settlement_outbox_leases SET owner = :owner, expires_at = :expiresAt " +
+                   "WHERE shard = :shard AND (owner = :owner OR expires_at < :now)", nativeQuery = true)
+    int acquire(@Param("shard") int shard,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Create a shard's lease row. Fails with a constraint violation if another owner created it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO settlement_outbox_leases (shard, owner, expires_at) " +
+                   "VALUES (:shard, :owner, :expiresAt)", nativeQuery = true)
+    int insert(@Param("shard") int shard,
+               @Param("owner") String owner,
+               @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Let every lease of an owner expire now, so other instances can take its shards at once
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE settlement_outbox_leases SET expires_at = :now WHERE owner = :owner", nativeQuery = true)
+    int releaseAll(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
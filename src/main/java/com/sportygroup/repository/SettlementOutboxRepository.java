@@ -0,0 +1,28 @@
+package com.sportygroup.repository;
+
+import com.sportygroup.model.SettlementOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the settlement outbox
+ */
+@Repository
+public interface SettlementOutboxRepository extends JpaRepository<SettlementOutbox, Long> {
+    
+    /**
+     * Oldest entries of one shard, in insertion order
+     */
+    List<SettlementOutbox> findByShardOrderByIdAsc(Integer shard, Pageable pageable);
+    
+    /**
+     * Creation time of the oldest entry, or null if the outbox is empty
+     */
+    @Query("SELECT MIN(o.createdAt) FROM SettlementOutbox o")
+    LocalDateTime findOldestCreatedAt();
+}
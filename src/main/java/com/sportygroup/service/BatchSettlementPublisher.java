@@ -0,0 +1,250 @@
+package com.sportygroup.service;
+
+import com.sportygroup.codec.BetSettlementMessageCodec;
+import com.sportygroup.codec.WireFormat;
+import com.sportygroup.model.BetSettlement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.DefaultMQProducer;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes bet settlements to RocketMQ as batch messages.
+ * Settlements are grouped per event and split into batches bounded by message count and bytes.
+ * Batches of one event are sent in order to the same message queue, one at a time, while events
+ * are sent concurrently up to max-in-flight; each event in flight has exactly one batch awaiting
+ * its ack, so max-in-flight bounds both concurrent events and outstanding batches.
+ * Settlements of failed batches are handed back to the caller, the outbox relay, which keeps them
+ * in the outbox for its next poll. Bodies are in the configured wire format, named by the
+ * wire-format message property.
+ */
+@Component
+@Slf4j
+public class BatchSettlementPublisher {
+
+    // Per-message overhead of a batch entry besides the body (sizes, flags, topic and properties)
+    private static final int MESSAGE_OVERHEAD_BYTES = 64;
+
+    private final BetSettlementMessageCodec codec;
+    private final RocketMQTemplate rocketMQTemplate;
+    private final Timer batchSendTimer;
+    private final Counter batchCounter;
+    private final Counter failedBatchCounter;
+
+    private final String betSettlementsTopic;
+
+    @Value("${app.rocketmq.batch.max-messages:500}")
+    private int maxBatchMessages;
+
+    @Value("${app.rocketmq.batch.max-bytes:1048576}")
+    private int maxBatchBytes;
+
+    @Value("${app.rocketmq.batch.send-timeout-ms:3000}")
+    private long sendTimeoutMs;
+
+    // One permit per event whose batch chain is being sent
+    private final Semaphore inFlightEvents;
+
+    public BatchSettlementPublisher(BetSettlementMessageCodec codec,
+                                    RocketMQTemplate rocketMQTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.rocketmq.topics.bet-settlements}") String betSettlementsTopic,
+                                    @Value("${app.rocketmq.batch.max-in-flight:16}") int maxInFlightEvents) {
+        this.codec = codec;
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.betSettlementsTopic = betSettlementsTopic;
+        this.inFlightEvents = new Semaphore(maxInFlightEvents);
+        this.batchSendTimer = Timer.builder("settlement.publish.batch.latency")
+            .description("Send latency of one settlement batch to RocketMQ")
+            .tag("topic", betSettlementsTopic)
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.batchCounter = Counter.builder("settlement.publish.batches")
+            .description("Settlement batches sent to RocketMQ")
+            .tag("topic", betSettlementsTopic)
+            .register(meterRegistry);
+        this.failedBatchCounter = Counter.builder("settlement.publish.batches.failed")
+            .description("Settlement batches that failed to send")
+            .tag("topic", betSettlementsTopic)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send settlements in batches and wait until every batch has been acknowledged or failed.
+     * Returns the settlements of failed batches.
+     */
+    public List<BetSettlement> send(Collection<BetSettlement> settlements) {
+        if (settlements.isEmpty()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        DefaultMQProducer producer = rocketMQTemplate.getProducer();
+        List<MessageQueue> queues = fetchQueues(producer);
+
+        Map<String, List<List<EncodedSettlement>>> batchesByEvent = toBatches(settlements);
+        List<CompletableFuture<List<BetSettlement>>> eventChains = new ArrayList<>(batchesByEvent.size());
+        int batches = 0;
+
+        for (Map.Entry<String, List<List<EncodedSettlement>>> entry : batchesByEvent.entrySet()) {
+            MessageQueue queue = queues.get(Math.floorMod(entry.getKey().hashCode(), queues.size()));
+            batches += entry.getValue().size();
+            acquireInFlightSlot();
+            CompletableFuture<List<BetSettlement>> chain = sendInOrder(producer, queue, entry.getValue(), 0);
+            chain.whenComplete((failed, e) -> inFlightEvents.release());
+            eventChains.add(chain);
+        }
+
+        List<BetSettlement> failed = new ArrayList<>();
+        eventChains.forEach(chain -> failed.addAll(chain.join()));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Published {} settlements in {} batches to topic '{}' ({} batches/s, p99 send latency {} ms, {} failed)",
+            settlements.size(), batches, betSettlementsTopic,
+            String.format("%.1f", batches / seconds), String.format("%.1f", p99LatencyMillis()), failed.size());
+        return failed;
+    }
+
+    /**
+     * Send the batches of one event sequentially so they reach the queue in order.
+     * A failed batch fails the rest of the event, keeping retried settlements in order as well.
+     */
+    private CompletableFuture<List<BetSettlement>> sendInOrder(DefaultMQProducer producer, MessageQueue queue,
+                                                               List<List<EncodedSettlement>> batches, int index) {
+        if (index == batches.size()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        List<EncodedSettlement> batch = batches.get(index);
+        return sendBatch(producer, queue, batch)
+            .thenCompose(v -> sendInOrder(producer, queue, batches, index + 1))
+            .exceptionally(e -> {
+                List<BetSettlement> failed = new ArrayList<>();
+                for (int i = index; i < batches.size(); i++) {
+                    batches.get(i).forEach(encoded -> failed.add(encoded.settlement()));
+                }
+                log.error("Failed to publish {} bet settlements for event: {}",
+                    failed.size(), batch.get(0).settlement().eventId(), e);
+                return failed;
+            });
+    }
+
+    private CompletableFuture<Void> sendBatch(DefaultMQProducer producer, MessageQueue queue, List<EncodedSettlement> batch) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long sendStart = System.nanoTime();
+
+        try {
+            List<Message> messages = new ArrayList<>(batch.size());
+            for (EncodedSettlement encoded : batch) {
+                Message message = new Message(betSettlementsTopic, encoded.body());
+                message.setKeys(String.valueOf(encoded.settlement().betId()));
+                message.putUserProperty(WireFormat.HEADER, codec.headerValue());
+                messages.add(message);
+            }
+
+            producer.send(messages, queue, new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    batchSendTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                    batchCounter.increment();
+                    future.complete(null);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    failedBatchCounter.increment();
+                    future.completeExceptionally(e);
+                }
+            }, sendTimeoutMs);
+
+        } catch (Exception e) {
+            failedBatchCounter.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Group settlements by event, preserving order, and split each group into size-bounded batches.
+     * Each settlement is serialized once here and the bytes are reused for the send.
+     */
+    private Map<String, List<List<EncodedSettlement>>> toBatches(Collection<BetSettlement> settlements) {
+        Map<String, List<List<EncodedSettlement>>> batchesByEvent = new LinkedHashMap<>();
+        Map<String, Integer> currentBatchBytes = new HashMap<>();
+
+        for (BetSettlement settlement : settlements) {
+            String eventId = settlement.eventId();
+            List<List<EncodedSettlement>> batches = batchesByEvent.computeIfAbsent(eventId, k -> new ArrayList<>());
+            EncodedSettlement encoded = encode(settlement);
+            int messageBytes = encoded.body().length + betSettlementsTopic.length() + MESSAGE_OVERHEAD_BYTES;
+
+            List<EncodedSettlement> current = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+            int bytes = currentBatchBytes.getOrDefault(eventId, 0);
+            if (current == null || current.size() >= maxBatchMessages || bytes + messageBytes > maxBatchBytes) {
+                current = new ArrayList<>();
+                batches.add(current);
+                bytes = 0;
+            }
+            current.add(encoded);
+            currentBatchBytes.put(eventId, bytes + messageBytes);
+        }
+        return batchesByEvent;
+    }
+
+    private EncodedSettlement encode(BetSettlement settlement) {
+        try {
+            return new EncodedSettlement(settlement, codec.encode(settlement));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error serializing bet settlement: " + settlement.betId(), e);
+        }
+    }
+
+    private List<MessageQueue> fetchQueues(DefaultMQProducer producer) {
+        try {
+            return producer.fetchPublishMessageQueues(betSettlementsTopic);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch message queues for topic: " + betSettlementsTopic, e);
+        }
+    }
+
+    private void acquireInFlightSlot() {
+        try {
+            inFlightEvents.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an in-flight event slot", e);
+        }
+    }
+
+    private double p99LatencyMillis() {
+        for (ValueAtPercentile percentile : batchSendTimer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private record EncodedSettlement(BetSettlement settlement, byte[] body) {
+    }
+}
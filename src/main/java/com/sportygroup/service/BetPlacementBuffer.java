@@ -0,0 +1,206 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.model.Bet;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Places bets one by one or, with app.bets.group-commit.enabled, through group commit.
+ * In group-commit mode each placement is queued in a bounded queue and a single writer thread
+ * inserts the queued bets as one multi-row batch per transaction, once max-batch bets are queued
+ * or window-ms after the first bet of the batch arrived. Each caller returns only after the
+ * transaction holding its bet has committed, so an acknowledged bet is as durable as with a
+ * single-row insert. If a batch fails its bets are retried one by one, so one bad bet only fails
+ * its own caller. Placing blocks while the queue is full, and a caller waits at most timeout-ms
+ * for its commit. Once shutdown has started, new placements are rejected, and placements the
+ * writer has not committed when it stops are failed rather than left waiting.
+ * Publishes the queue depth as bets.group-commit.queue.depth and the bets per commit as
+ * bets.group-commit.batch.size.
+ */
+@Component
+@Slf4j
+public class BetPlacementBuffer {
+
+    private final BetService betService;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<PendingBet> queue;
+    private final DistributionSummary batchSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public BetPlacementBuffer(BetService betService,
+                              ThreadFactories threadFactories,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.bets.group-commit.enabled:false}") boolean enabled,
+                              @Value("${app.bets.group-commit.max-batch:200}") int maxBatch,
+                              @Value("${app.bets.group-commit.window-ms:5}") long windowMs,
+                              @Value("${app.bets.group-commit.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.bets.group-commit.timeout-ms:30000}") long timeoutMillis) {
+        this.betService = betService;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            this.batchSize = null;
+            this.writer = null;
+            return;
+        }
+        Gauge.builder("bets.group-commit.queue.depth", queue, BlockingQueue::size)
+            .description("Bet placements waiting for the group-commit writer")
+            .register(meterRegistry);
+        batchSize = DistributionSummary.builder("bets.group-commit.batch.size")
+            .description("Bets inserted per group-commit transaction")
+            .register(meterRegistry);
+        writer = threadFactories.named("bet-group-commit").newThread(this::write);
+        writer.start();
+    }
+
+    /**
+     * Create a bet, returning once it has been committed. Fails with an IllegalStateException once
+     * shutdown has started, or if the bet was not committed within timeout-ms; after a timeout the
+     * bet may still be committed later.
+     */
+    public Bet createBet(CreateBetRequest request) throws InterruptedException {
+        if (!enabled) {
+            return betService.createBet(request);
+        }
+        if (!running) {
+            throw new IllegalStateException("Bet placement is shutting down");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        PendingBet pending = new PendingBet(request, new CompletableFuture<>());
+        if (!queue.offer(pending, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Bet placement queue is full");
+        }
+        if (!running && queue.remove(pending)) {
+            // Shutdown started while queueing; the writer may already have made its last pass
+            throw new IllegalStateException("Bet placement is shutting down");
+        }
+        try {
+            return pending.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Not taken by the writer yet: withdraw it so it is never committed behind the caller's back
+            if (queue.remove(pending)) {
+                throw new IllegalStateException("Bet was not committed within " + timeoutMillis + " ms", e);
+            }
+            throw new IllegalStateException("Bet commit is taking over " + timeoutMillis + " ms; it may still be committed", e);
+        }
+    }
+
+    private void write() {
+        try {
+            writeBatches();
+        } finally {
+            // Whatever is left will never be committed by this writer; let its callers know now
+            running = false;
+            List<PendingBet> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            IllegalStateException stopped = new IllegalStateException("Bet placement stopped before the bet was committed");
+            abandoned.forEach(pending -> pending.result().completeExceptionally(stopped));
+            if (!abandoned.isEmpty()) {
+                log.warn("Failed {} queued bet placements as the group-commit writer stopped", abandoned.size());
+            }
+        }
+    }
+
+    private void writeBatches() {
+        List<PendingBet> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBet first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingBet next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingBet> batch) {
+        try {
+            commitOrPlaceOneByOne(batch);
+        } catch (Throwable e) {
+            // Never leave a caller waiting: futures already completed are unaffected
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void commitOrPlaceOneByOne(List<PendingBet> batch) {
+        try {
+            List<Bet> bets = betService.createBets(batch.stream().map(PendingBet::request).toList());
+            batchSize.record(bets.size());
+            for (int i = 0; i < bets.size(); i++) {
+                batch.get(i).result().complete(bets.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} bets failed, placing them one by one", batch.size(), e);
+            for (PendingBet pending : batch) {
+                try {
+                    pending.result().complete(betService.createBet(pending.request()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    /**
+     * Let the writer commit what is queued, for up to ten seconds
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            writer.interrupt();
+        }
+    }
+
+    private record PendingBet(CreateBetRequest request, CompletableFuture<Bet> result) {
+    }
+}
@@ -1,15 +1,46 @@
 package com.sportygroup.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sportygroup.dto.BetPage;
 import com.sportygroup.dto.CreateBetRequest;
 import com.sportygroup.model.Bet;
 import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.model.ResettlementCheckpoint;
+import com.sportygroup.model.SettlementCheckpoint;
+import com.sportygroup.repository.BetIdRange;
 import com.sportygroup.repository.BetRepository;
+import com.sportygroup.repository.MarketWinner;
+import com.sportygroup.repository.ResettlementCheckpointRepository;
+import com.sportygroup.repository.SettlementCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing bets
@@ -20,12 +51,26 @@ import java.util.Optional;
 public class BetService {
     
     private final BetRepository betRepository;
+    private final SettlementCheckpointRepository settlementCheckpointRepository;
+    private final ResettlementCheckpointRepository resettlementCheckpointRepository;
+    private final OutcomeIdempotencyGuard idempotencyGuard;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UserBetsCache userBetsCache;
+    private final ExposureTracker exposureTracker;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    @Value("${app.bets.stream.flush-every:1000}")
+    private int streamFlushEvery;
     
     /**
      * Create a new bet
      */
     public Bet createBet(CreateBetRequest request) {
-        log.info("Creating new bet for user: {} on event: {}", request.getUserId(), request.getEventId());
+        log.debug("Creating new bet for user: {} on event: {}", request.getUserId(), request.getEventId());
         
         Bet bet = new Bet(
             request.getUserId(),
@@ -34,13 +79,50 @@ public class BetService {
             request.getEventWinnerId(),
             request.getBetAmount()
         );
+        bet.setOdds(request.getOdds());
         
         Bet savedBet = betRepository.save(bet);
-        log.info("Created bet with ID: {}", savedBet.getBetId());
+        userBetsCache.invalidate(List.of(savedBet.getUserId()));
+        exposureTracker.placed(List.of(savedBet));
+        log.debug("Created bet with ID: {}", savedBet.getBetId());
         
         return savedBet;
     }
     
+    /**
+     * Create many bets in one transaction.
+     * Inserts are flushed as JDBC batches of the configured batch size and the persistence
+     * context is cleared after each flush so memory stays bounded for large requests.
+     */
+    @Transactional
+    public List<Bet> createBets(List<CreateBetRequest> requests) {
+        log.debug("Creating {} new bets", requests.size());
+        
+        List<Bet> savedBets = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<Bet> chunk = new ArrayList<>(batchSize);
+            for (CreateBetRequest request : requests.subList(from, Math.min(from + batchSize, requests.size()))) {
+                Bet bet = new Bet(
+                    request.getUserId(),
+                    request.getEventId(),
+                    request.getEventMarketId(),
+                    request.getEventWinnerId(),
+                    request.getBetAmount()
+                );
+                bet.setOdds(request.getOdds());
+                chunk.add(bet);
+            }
+            savedBets.addAll(betRepository.saveAll(chunk));
+            betRepository.flush();
+            entityManager.clear();
+        }
+        
+        invalidateUserBets(savedBets);
+        afterCommit(() -> exposureTracker.placed(savedBets));
+        log.info("Created {} bets", savedBets.size());
+        return savedBets;
+    }
+    
     /**
      * Get all bets
      */
@@ -48,6 +130,49 @@ public class BetService {
         return betRepository.findAll();
     }
     
+    /**
+     * Get one keyset page of all bets, ordered by ID
+     */
+    public BetPage getBetsPage(Long afterId, int limit) {
+        List<Bet> bets = betRepository.findByBetIdGreaterThanOrderByBetIdAsc(
+            afterId != null ? afterId : 0L, PageRequest.ofSize(limit));
+        Bet last = bets.size() == limit ? bets.get(bets.size() - 1) : null;
+        return new BetPage(bets, last != null ? last.getBetId() : null, null);
+    }
+    
+    /**
+     * Get one keyset page of a user's bets, ordered by creation time then ID
+     */
+    public BetPage getBetsPageByUserId(String userId, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        List<Bet> bets = afterCreatedAt == null || afterId == null
+            ? betRepository.findByUserIdOrderByCreatedAtAscBetIdAsc(userId, PageRequest.ofSize(limit))
+            : betRepository.findUserBetsAfter(userId, afterCreatedAt, afterId, PageRequest.ofSize(limit));
+        Bet last = bets.size() == limit ? bets.get(bets.size() - 1) : null;
+        return new BetPage(bets,
+            last != null ? last.getBetId() : null,
+            last != null ? last.getCreatedAt() : null);
+    }
+    
+    /**
+     * Write all bets as newline-delimited JSON straight from a JDBC cursor
+     */
+    @Transactional(readOnly = true)
+    public void writeAllBets(OutputStream out) throws IOException {
+        try (Stream<Bet> bets = betRepository.streamAll()) {
+            writeNdjson(bets, out);
+        }
+    }
+    
+    /**
+     * Write a user's bets as newline-delimited JSON straight from a JDBC cursor
+     */
+    @Transactional(readOnly = true)
+    public void writeBetsByUserId(String userId, OutputStream out) throws IOException {
+        try (Stream<Bet> bets = betRepository.streamByUserId(userId)) {
+            writeNdjson(bets, out);
+        }
+    }
+    
     /**
      * Get bet by ID
      */
@@ -56,10 +181,10 @@ public class BetService {
     }
     
     /**
-     * Get bets for a specific user
+     * Get bets for a specific user, served from the per-user cache
      */
     public List<Bet> getBetsByUserId(String userId) {
-        return betRepository.findByUserId(userId);
+        return userBetsCache.get(userId);
     }
     
     /**
@@ -83,6 +208,236 @@ public class BetService {
         return betRepository.findLosingBets(eventId, winnerId, BetStatus.PENDING);
     }
     
+    /**
+     * Settle all pending bets of an event in one transaction using set-based updates.
+     * A cancelled event is voided with one statement, as are the bets of all voided markets; voids
+     * are applied first, so they take precedence over results.
+     * Each explicitly resulted market costs one statement for its winners, its losers are marked
+     * with one statement for all listed markets, and the remaining markets are settled against the
+     * default winner with one statement each for winners and losers. All rows share one settlement
+     * timestamp, which is then used to read back exactly the rows settled by this run.
+     * The outcome version is claimed first, so a concurrent delivery of the same outcome waits on
+     * the claim and then fails with a DataIntegrityViolationException without touching any bet.
+     */
+    @Transactional
+    public List<Bet> settleEventBets(OutcomeIndex outcome) {
+        idempotencyGuard.claim(outcome.getEventId(), outcome.getOutcomeVersion());
+        LocalDateTime settledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return settlePendingBets(outcome, settledAt, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Settle the pending bets of an event with IDs from fromBetId to toBetId, inclusive, in one
+     * transaction, the same way as {@link #settleEventBets} but without claiming the outcome version:
+     * ranges of one event are settled concurrently and the caller claims the outcome once all have
+     * committed. Only pending bets are updated, so a range settled twice settles each bet once.
+     */
+    @Transactional
+    public List<Bet> settleEventBetRange(OutcomeIndex outcome, LocalDateTime settledAt, long fromBetId, long toBetId) {
+        return settlePendingBets(outcome, settledAt, fromBetId, toBetId);
+    }
+    
+    /**
+     * IDs and number of an event's pending bets
+     */
+    public BetIdRange getPendingBetRange(String eventId) {
+        return betRepository.findBetIdRange(eventId, BetStatus.PENDING);
+    }
+    
+    private List<Bet> settlePendingBets(OutcomeIndex outcome, LocalDateTime settledAt, long fromBetId, long toBetId) {
+        String eventId = outcome.getEventId();
+        int won = 0;
+        int lost = 0;
+        int voided = 0;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        
+        if (outcome.isCancelled()) {
+            voided += betRepository.voidBets(eventId, BetStatus.PENDING, BetStatus.VOID, settledAt, fromBetId, toBetId);
+        } else if (!outcome.getVoidedMarkets().isEmpty()) {
+            voided += betRepository.voidMarketBets(eventId, outcome.getVoidedMarkets(), BetStatus.PENDING, BetStatus.VOID,
+                settledAt, fromBetId, toBetId);
+        }
+        
+        Map<String, String> winnerByMarket = outcome.getWinnerByMarket();
+        if (!winnerByMarket.isEmpty()) {
+            for (Map.Entry<String, String> market : winnerByMarket.entrySet()) {
+                won += betRepository.settleMarketWinningBets(eventId, market.getKey(), market.getValue(),
+                    BetStatus.PENDING, BetStatus.WON, settledAt, fromBetId, toBetId);
+            }
+            lost += betRepository.settleMarketLosingBets(eventId, winnerByMarket.keySet(),
+                BetStatus.PENDING, BetStatus.LOST, settledAt, fromBetId, toBetId);
+        }
+        
+        // Listed markets are fully settled by now, so whatever is still pending takes the default winner
+        String defaultWinnerId = outcome.getDefaultWinnerId();
+        if (defaultWinnerId != null) {
+            won += betRepository.settleWinningBets(eventId, defaultWinnerId, BetStatus.PENDING, BetStatus.WON,
+                settledAt, fromBetId, toBetId);
+            lost += betRepository.settleLosingBets(eventId, defaultWinnerId, BetStatus.PENDING, BetStatus.LOST,
+                settledAt, fromBetId, toBetId);
+        }
+        sample.stop(pendingQueryTimer("settle"));
+        log.debug("Settled {} winning, {} losing and {} void bets for event: {} in bet ID range {}-{}",
+            won, lost, voided, eventId, fromBetId, toBetId);
+        
+        if (won + lost + voided == 0) {
+            return List.of();
+        }
+        List<Bet> settledBets = pendingQueryTimer("fetch-settled").record(() ->
+            betRepository.findByEventIdAndSettledAtAndBetIdBetween(eventId, settledAt, fromBetId, toBetId));
+        invalidateUserBets(settledBets);
+        afterCommit(() -> exposureTracker.settled(settledBets));
+        return settledBets;
+    }
+    
+    /**
+     * Settle the pending bets of several events in a single transaction.
+     * Either every event of the batch is settled or none is.
+     */
+    @Transactional
+    public List<Bet> settleEventsBets(Collection<OutcomeIndex> outcomes) {
+        List<Bet> settledBets = new ArrayList<>();
+        outcomes.forEach(outcome -> settledBets.addAll(settleEventBets(outcome)));
+        return settledBets;
+    }
+    
+    /**
+     * Settle the next chunk of an event's pending bets in its own transaction.
+     * The chunk starts after the event's checkpoint, and the checkpoint is advanced in the same
+     * transaction, so a restarted settlement continues after the last committed chunk.
+     * Each bet is matched with one lookup in the outcome index and updated through its version,
+     * so a concurrent settler of the same chunk fails with an optimistic locking exception and
+     * rolls back. Returns every bet scanned in the chunk (bets in unresulted markets keep PENDING
+     * status), or an empty list once the event has no pending bets left after the checkpoint.
+     */
+    @Transactional
+    public List<Bet> settleNextChunk(OutcomeIndex outcome, int chunkSize) {
+        String eventId = outcome.getEventId();
+        LocalDateTime settledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        SettlementCheckpoint checkpoint = settlementCheckpointRepository.findById(eventId)
+            .orElseGet(() -> new SettlementCheckpoint(eventId, 0L, 0L, settledAt));
+        
+        List<Bet> chunk = pendingQueryTimer("fetch-chunk").record(() ->
+            betRepository.findByEventIdAndStatusAndBetIdGreaterThanOrderByBetIdAsc(
+                eventId, BetStatus.PENDING, checkpoint.getLastBetId(), PageRequest.ofSize(chunkSize)));
+        if (chunk.isEmpty()) {
+            return chunk;
+        }
+        
+        // Dirty checking flushes these as batched versioned updates at commit
+        List<Bet> settledBets = new ArrayList<>(chunk.size());
+        for (Bet bet : chunk) {
+            BetStatus status = outcome.settle(bet);
+            if (status == null) {
+                continue;
+            }
+            bet.setStatus(status);
+            bet.setSettledAt(settledAt);
+            settledBets.add(bet);
+        }
+        
+        checkpoint.setLastBetId(chunk.get(chunk.size() - 1).getBetId());
+        checkpoint.setSettledCount(checkpoint.getSettledCount() + settledBets.size());
+        checkpoint.setUpdatedAt(settledAt);
+        settlementCheckpointRepository.save(checkpoint);
+        invalidateUserBets(settledBets);
+        afterCommit(() -> exposureTracker.settled(settledBets));
+        
+        log.debug("Settled chunk of {} bets for event: {} up to bet ID: {}", chunk.size(), eventId, checkpoint.getLastBetId());
+        return chunk;
+    }
+    
+    /**
+     * Claim the outcome version and remove the checkpoint of an event whose chunked settlement has finished
+     */
+    @Transactional
+    public void completeChunkedSettlement(OutcomeIndex outcome) {
+        String eventId = outcome.getEventId();
+        idempotencyGuard.claim(eventId, outcome.getOutcomeVersion());
+        settlementCheckpointRepository.findById(eventId).ifPresent(checkpoint -> {
+            log.info("Completed chunked settlement of {} bets for event: {}", checkpoint.getSettledCount(), eventId);
+            settlementCheckpointRepository.delete(checkpoint);
+        });
+    }
+    
+    /**
+     * Re-check the next chunk of an event's settled bets against an outcome in its own transaction.
+     * The chunk starts after the run's checkpoint for the event, which is advanced in the same
+     * transaction, so a resubmitted run continues after the last committed chunk. Bets whose status
+     * differs under the outcome are updated through their version and get a new settlement time;
+     * bets in markets the outcome does not result are left alone. Returns null, after marking the
+     * event completed for the run, once no settled bets are left after the checkpoint.
+     */
+    @Transactional
+    public ResettledChunk resettleNextChunk(String runId, OutcomeIndex outcome, int chunkSize) {
+        String eventId = outcome.getEventId();
+        LocalDateTime settledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ResettlementCheckpoint checkpoint = resettlementCheckpointRepository
+            .findById(new ResettlementCheckpoint.Key(runId, eventId))
+            .orElseGet(() -> new ResettlementCheckpoint(runId, eventId, 0L, 0L, 0L, false, settledAt));
+        if (checkpoint.isCompleted()) {
+            return null;
+        }
+        
+        List<Bet> chunk = betRepository.findByEventIdAndStatusInAndBetIdGreaterThanOrderByBetIdAsc(
+            eventId, List.of(BetStatus.WON, BetStatus.LOST, BetStatus.VOID), checkpoint.getLastBetId(), PageRequest.ofSize(chunkSize));
+        checkpoint.setUpdatedAt(settledAt);
+        if (chunk.isEmpty()) {
+            checkpoint.setCompleted(true);
+            resettlementCheckpointRepository.save(checkpoint);
+            return null;
+        }
+        
+        List<Bet> changed = new ArrayList<>();
+        List<Bet> unchangedWinners = new ArrayList<>();
+        for (Bet bet : chunk) {
+            BetStatus status = outcome.settle(bet);
+            if (status == null || status == bet.getStatus()) {
+                if (bet.getStatus() == BetStatus.WON) {
+                    unchangedWinners.add(bet);
+                }
+                continue;
+            }
+            bet.setStatus(status);
+            bet.setSettledAt(settledAt);
+            changed.add(bet);
+        }
+        
+        checkpoint.setLastBetId(chunk.get(chunk.size() - 1).getBetId());
+        checkpoint.setScannedCount(checkpoint.getScannedCount() + chunk.size());
+        checkpoint.setChangedCount(checkpoint.getChangedCount() + changed.size());
+        resettlementCheckpointRepository.save(checkpoint);
+        invalidateUserBets(changed);
+        
+        log.debug("Resettled chunk of {} bets for event: {} up to bet ID: {}, {} changed",
+            chunk.size(), eventId, checkpoint.getLastBetId(), changed.size());
+        return new ResettledChunk(chunk.size(), changed, unchangedWinners);
+    }
+    
+    /**
+     * Outcome implied by an event's winning bets: the winning selection of every market with won bets
+     * on a single selection. Markets where every bet lost have no known winner, and markets with won
+     * bets on several selections have no single one; both are left unresulted, so their bets are not
+     * re-checked. The outcome is null if no market has a single winning selection.
+     */
+    public InferredOutcome inferOutcome(String eventId) {
+        Map<String, String> winnerByMarket = new HashMap<>();
+        Set<String> ambiguousMarkets = new TreeSet<>();
+        for (MarketWinner winner : betRepository.findSelections(eventId, BetStatus.WON)) {
+            String previous = winnerByMarket.putIfAbsent(winner.eventMarketId(), winner.eventWinnerId());
+            if (previous != null) {
+                ambiguousMarkets.add(winner.eventMarketId());
+            }
+        }
+        ambiguousMarkets.forEach(marketId -> {
+            winnerByMarket.remove(marketId);
+            log.warn("Market {} of event {} has won bets on more than one selection, leaving it out of the inferred outcome",
+                marketId, eventId);
+        });
+        EventOutcome outcome = winnerByMarket.isEmpty() ? null : new EventOutcome(eventId, null, null, winnerByMarket);
+        return new InferredOutcome(outcome, ambiguousMarkets);
+    }
+    
     /**
      * Update bet status
      */
@@ -90,8 +445,15 @@ public class BetService {
         Optional<Bet> betOptional = betRepository.findById(betId);
         if (betOptional.isPresent()) {
             Bet bet = betOptional.get();
+            BetStatus previous = bet.getStatus();
             bet.setStatus(status);
             Bet updatedBet = betRepository.save(bet);
+            userBetsCache.invalidate(List.of(updatedBet.getUserId()));
+            if (previous == BetStatus.PENDING && status != BetStatus.PENDING) {
+                exposureTracker.settled(List.of(updatedBet));
+            } else if (previous != BetStatus.PENDING && status == BetStatus.PENDING) {
+                exposureTracker.placed(List.of(updatedBet));
+            }
             log.info("Updated bet {} status to {}", betId, status);
             return updatedBet;
         } else {
@@ -99,4 +461,60 @@ public class BetService {
             throw new RuntimeException("Bet not found with ID: " + betId);
         }
     }
+    
+    /**
+     * Run an action once the current transaction commits, or right away outside one
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    /**
+     * Drop the cached bet lists of the bets' users once the current transaction commits
+     */
+    private void invalidateUserBets(Collection<Bet> bets) {
+        userBetsCache.invalidate(bets.stream().map(Bet::getUserId).distinct().toList());
+    }
+    
+    /**
+     * Serialize each row as soon as it is read and detach it, so neither the persistence context
+     * nor the response buffer grows with the size of the result
+     */
+    private void writeNdjson(Stream<Bet> bets, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        int written = 0;
+        
+        for (Bet bet : (Iterable<Bet>) bets::iterator) {
+            writer.writeValue(generator, bet);
+            generator.writeRaw('\n');
+            entityManager.detach(bet);
+            if (++written % streamFlushEvery == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        log.info("Streamed {} bets", written);
+    }
+    
+    /**
+     * Timer of the database work on an event's pending bets: the set-based settlement updates,
+     * reading back the settled rows, or loading the next chunk
+     */
+    private Timer pendingQueryTimer(String query) {
+        return Timer.builder("settlement.pending.query")
+            .description("Time spent in settlement queries on pending bets")
+            .tag("query", query)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
 }
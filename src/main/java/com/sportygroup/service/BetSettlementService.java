@@ -2,15 +2,27 @@ package com.sportygroup.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.codec.BetSettlementMessageCodec;
+import com.sportygroup.codec.WireFormat;
 import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.common.message.MessageExt;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
-import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Service for handling bet settlements via RocketMQ
  * Supports both real RocketMQ and mock implementation
@@ -21,7 +33,7 @@ import org.springframework.stereotype.Service;
 public class BetSettlementService {
     
     private final ObjectMapper objectMapper;
-    private final RocketMQTemplate rocketMQTemplate;
+    private final BatchSettlementPublisher batchSettlementPublisher;
     
     @Value("${app.mock.rocketmq:true}")
     private boolean mockRocketMQ;
@@ -29,117 +41,128 @@ public class BetSettlementService {
     @Value("${app.rocketmq.topics.bet-settlements}")
     private String betSettlementsTopic;
     
+    @Value("${app.logging.settlement-trace-every:1000}")
+    private int traceEvery;
+    
     /**
-     * Publish bet settlement message to RocketMQ (or mock if configured)
+     * Send a group of bet settlements to RocketMQ as batch messages (or mock if configured).
+     * Returns the settlements that failed; the caller owns retrying them.
      */
-    public void publishBetSettlement(BetSettlement betSettlement) {
+    public List<BetSettlement> sendBetSettlements(Collection<BetSettlement> betSettlements) {
         if (mockRocketMQ) {
-            mockPublishBetSettlement(betSettlement);
-        } else {
-            realPublishBetSettlement(betSettlement);
+            mockPublishBetSettlements(betSettlements);
+            return List.of();
         }
+        return batchSettlementPublisher.send(betSettlements);
     }
     
     /**
-     * Mock implementation - just logs the settlement payload
+     * Mock implementation of a group: processes each settlement and logs one summary line per event
      */
-    private void mockPublishBetSettlement(BetSettlement betSettlement) {
-        try {
-            String payload = objectMapper.writeValueAsString(betSettlement);
-            log.info("MOCK RocketMQ Producer - Publishing bet settlement to topic '{}': {}", 
-                betSettlementsTopic, payload);
-            
-            // Simulate processing the settlement immediately
-            processBetSettlement(betSettlement);
-            
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing bet settlement: {}", betSettlement, e);
-        }
+    private void mockPublishBetSettlements(Collection<BetSettlement> betSettlements) {
+        betSettlements.forEach(this::mockPublishBetSettlement);
+        betSettlements.stream()
+            .collect(Collectors.groupingBy(BetSettlement::eventId, LinkedHashMap::new, Collectors.toList()))
+            .forEach((eventId, settlements) -> {
+                Map<BetStatus, Long> byStatus = settlements.stream()
+                    .collect(Collectors.groupingBy(BetSettlement::settlementStatus, () -> new EnumMap<>(BetStatus.class),
+                        Collectors.counting()));
+                long payoutCents = settlements.stream().mapToLong(BetSettlement::payoutCents).sum();
+                log.info("MOCK RocketMQ Producer - Published {} bet settlements for event: {} to topic '{}' ({}, payout {})",
+                    settlements.size(), eventId, betSettlementsTopic, byStatus, BigDecimal.valueOf(payoutCents, 2));
+            });
     }
     
     /**
-     * Real RocketMQ implementation using Spring Boot RocketMQ Starter
+     * Mock implementation - processes the settlement, logging its payload only when traced
      */
-    private void realPublishBetSettlement(BetSettlement betSettlement) {
-        try {
-            log.info("Publishing bet settlement to RocketMQ topic '{}': {}", betSettlementsTopic, betSettlement);
-            
-            // Send message to RocketMQ
-            rocketMQTemplate.convertAndSend(betSettlementsTopic, betSettlement);
-            
-            log.info("Successfully published bet settlement to RocketMQ for bet ID: {}", betSettlement.getBetId());
-            
-        } catch (Exception e) {
-            log.error("Failed to publish bet settlement to RocketMQ for bet ID: {}", betSettlement.getBetId(), e);
-            // In production, you might want to retry or send to a dead letter queue
-            throw new RuntimeException("Failed to publish bet settlement", e);
+    private void mockPublishBetSettlement(BetSettlement betSettlement) {
+        // Only sampled bets pay for serializing the payload; the DEBUG line in processBetSettlement covers the rest
+        if (isTraced(betSettlement)) {
+            try {
+                log.info("MOCK RocketMQ Producer - Publishing bet settlement to topic '{}': {}", betSettlementsTopic,
+                    objectMapper.writeValueAsString(betSettlement));
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing bet settlement for bet ID: {}", betSettlement.betId(), e);
+            }
         }
+        
+        // Simulate processing the settlement immediately
+        processBetSettlement(betSettlement);
     }
     
     /**
-     * Process bet settlement (handles settlement logic)
+     * Process bet settlement (handles settlement logic).
+     * Logs one line per bet at DEBUG, and at INFO for every trace-every'th bet ID.
      */
     public void processBetSettlement(BetSettlement betSettlement) {
-        log.info("Processing bet settlement: {}", betSettlement);
-        
-        switch (betSettlement.getSettlementStatus()) {
+        switch (betSettlement.settlementStatus()) {
             case WON:
-                log.info("Bet {} WON - User {} receives payout of {}", 
-                    betSettlement.getBetId(), 
-                    betSettlement.getUserId(), 
-                    betSettlement.getPayoutAmount());
                 // In a real system, this would credit the user's account
                 break;
                 
             case LOST:
-                log.info("Bet {} LOST - User {} loses stake, no payout", 
-                    betSettlement.getBetId(), 
-                    betSettlement.getUserId());
                 // In a real system, this would debit the user's account (already done when bet was placed)
                 break;
                 
             case VOID:
-                log.info("Bet {} VOID - User {} stake refunded", 
-                    betSettlement.getBetId(), 
-                    betSettlement.getUserId());
-                // In a real system, this would refund the original stake
+                // In a real system, this would refund the original stake, carried as the payout
                 break;
                 
             default:
                 log.warn("Unknown settlement status for bet {}: {}", 
-                    betSettlement.getBetId(), 
-                    betSettlement.getSettlementStatus());
+                    betSettlement.betId(), 
+                    betSettlement.settlementStatus());
+                return;
         }
         
-        log.info("Successfully processed bet settlement for bet ID: {}", betSettlement.getBetId());
+        if (isTraced(betSettlement)) {
+            log.info("Processed bet settlement: bet {} {} - User {} payout {}", betSettlement.betId(),
+                betSettlement.settlementStatus(), betSettlement.userId(), betSettlement.payoutAmount());
+        } else if (log.isDebugEnabled()) {
+            log.debug("Processed bet settlement: bet {} {} - User {} payout {}", betSettlement.betId(),
+                betSettlement.settlementStatus(), betSettlement.userId(), betSettlement.payoutAmount());
+        }
+    }
+    
+    /**
+     * Whether the settlement's bet is one of the sampled bets traced at INFO
+     */
+    boolean isTraced(BetSettlement betSettlement) {
+        return traceEvery > 0 && betSettlement.betId() != null && betSettlement.betId() % traceEvery == 0;
     }
     
     /**
      * RocketMQ Consumer for bet settlements
-     * This is a separate component that listens to the bet-settlements topic
+     * This is a separate component that listens to the bet-settlements topic.
+     * Not registered in mock mode, where settlements are processed directly on publish.
+     * Bodies are decoded in the wire format named by their wire-format property, JSON if absent.
      */
     @Service
+    @ConditionalOnProperty(name = "app.mock.rocketmq", havingValue = "false")
     @RocketMQMessageListener(
         topic = "${app.rocketmq.topics.bet-settlements}",
         consumerGroup = "${rocketmq.consumer.group}"
     )
     @Slf4j
-    public static class BetSettlementConsumer implements RocketMQListener<BetSettlement> {
+    public static class BetSettlementConsumer implements RocketMQListener<MessageExt> {
         
         private final BetSettlementService betSettlementService;
+        private final BetSettlementMessageCodec codec;
         
-        public BetSettlementConsumer(BetSettlementService betSettlementService) {
+        public BetSettlementConsumer(BetSettlementService betSettlementService, BetSettlementMessageCodec codec) {
             this.betSettlementService = betSettlementService;
+            this.codec = codec;
         }
         
         @Override
-        public void onMessage(BetSettlement betSettlement) {
-            log.info("RocketMQ Consumer - Received bet settlement: {}", betSettlement);
-            
+        public void onMessage(MessageExt message) {
             try {
+                BetSettlement betSettlement = codec.decode(message.getBody(), message.getUserProperty(WireFormat.HEADER));
+                log.debug("RocketMQ Consumer - Received bet settlement for bet ID: {}", betSettlement.betId());
                 betSettlementService.processBetSettlement(betSettlement);
             } catch (Exception e) {
-                log.error("Error processing bet settlement from RocketMQ: {}", betSettlement, e);
+                log.error("Error processing bet settlement from RocketMQ message: {}", message.getMsgId(), e);
                 // In production, you might want to implement retry logic or dead letter queue
             }
         }
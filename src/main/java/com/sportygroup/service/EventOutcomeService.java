@@ -1,13 +1,16 @@
 package com.sportygroup.service;
 
+import com.sportygroup.dto.OutcomeAck;
 import com.sportygroup.model.EventOutcome;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -27,7 +30,7 @@ public class EventOutcomeService {
      * Publish event outcome to Kafka
      */
     public void publishEventOutcome(EventOutcome eventOutcome) {
-        log.info("Publishing event outcome to Kafka: {}", eventOutcome);
+        log.debug("Publishing event outcome to Kafka for event: {}", eventOutcome.getEventId());
         
         CompletableFuture<SendResult<String, EventOutcome>> future = 
             kafkaTemplate.send(eventOutcomesTopic, eventOutcome.getEventId(), eventOutcome);
@@ -42,4 +45,39 @@ public class EventOutcomeService {
             }
         });
     }
+    
+    /**
+     * Publish many event outcomes to Kafka without waiting for any of them.
+     * All records are handed to the producer up front, so they share its batches; the returned future
+     * completes once every record has been acknowledged or has failed, with one ack per outcome in order.
+     */
+    public CompletableFuture<List<OutcomeAck>> publishEventOutcomes(List<EventOutcome> eventOutcomes) {
+        log.info("Publishing {} event outcomes to Kafka", eventOutcomes.size());
+        
+        List<CompletableFuture<OutcomeAck>> acks = eventOutcomes.stream()
+            .map(this::send)
+            .toList();
+        
+        return CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+            .thenApply(done -> acks.stream().map(CompletableFuture::join).toList());
+    }
+    
+    private CompletableFuture<OutcomeAck> send(EventOutcome eventOutcome) {
+        String eventId = eventOutcome.getEventId();
+        CompletableFuture<SendResult<String, EventOutcome>> future;
+        try {
+            future = kafkaTemplate.send(eventOutcomesTopic, eventId, eventOutcome);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        
+        return future.handle((result, exception) -> {
+            if (exception == null) {
+                return OutcomeAck.published(eventId,
+                    result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+            }
+            log.error("Failed to publish event outcome for event: {} to topic: {}", eventId, eventOutcomesTopic, exception);
+            return OutcomeAck.failed(eventId, NestedExceptionUtils.getMostSpecificCause(exception));
+        });
+    }
 }
@@ -0,0 +1,199 @@
+package com.sportygroup.service;
+
+import com.sportygroup.dto.EventExposureResponse;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.repository.BetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Open stake and potential payout of every event selection, kept in memory and updated as bets are
+ * placed and settled, so an event's exposure is read in O(selections) without touching bets.
+ * Counters are LongAdders, so concurrent placements on one hot selection add to separate cells
+ * instead of contending on one value. Built from the pending bets at startup; an event is dropped
+ * once a settlement leaves none of its selections with an open bet.
+ * Potential payout counts bets with captured odds; the stake of bets without is tracked as unpriced.
+ */
+@Component
+@Slf4j
+public class ExposureTracker {
+
+    private final BetRepository betRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, EventCounters> exposureByEvent = new ConcurrentHashMap<>();
+
+    public ExposureTracker(BetRepository betRepository,
+                           EntityManager entityManager,
+                           TransactionTemplate transactionTemplate) {
+        this.betRepository = betRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Bet> bets = betRepository.streamByStatus(BetStatus.PENDING)) {
+                bets.forEach(bet -> {
+                    add(bet, 1);
+                    // Keep the persistence context from holding every pending bet until commit
+                    entityManager.detach(bet);
+                });
+            }
+        });
+        log.info("Rebuilt exposure of {} events from pending bets", exposureByEvent.size());
+    }
+
+    /**
+     * Add newly placed bets
+     */
+    public void placed(Collection<Bet> bets) {
+        bets.forEach(bet -> add(bet, 1));
+    }
+
+    /**
+     * Remove bets that are no longer pending
+     */
+    public void settled(Collection<Bet> bets) {
+        bets.forEach(bet -> add(bet, -1));
+    }
+
+    /**
+     * Exposure of an event, or empty if it has no open bet
+     */
+    public Optional<EventExposureResponse> get(String eventId) {
+        EventCounters event = exposureByEvent.get(eventId);
+        if (event == null) {
+            return Optional.empty();
+        }
+        Map<Selection, Counters> selections = event.selections;
+        List<EventExposureResponse.Selection> views = new ArrayList<>(selections.size());
+        long openBets = 0;
+        long stakeCents = 0;
+        long unpricedStakeCents = 0;
+        for (Map.Entry<Selection, Counters> entry : selections.entrySet()) {
+            Counters counters = entry.getValue();
+            long selectionStake = counters.stakeCents.sum();
+            long selectionUnpriced = counters.unpricedStakeCents.sum();
+            long selectionBets = counters.openBets.sum();
+            openBets += selectionBets;
+            stakeCents += selectionStake;
+            unpricedStakeCents += selectionUnpriced;
+            views.add(EventExposureResponse.Selection.builder()
+                .eventMarketId(entry.getKey().marketId())
+                .eventWinnerId(entry.getKey().winnerId())
+                .openBets(selectionBets)
+                .stake(amount(selectionStake))
+                .potentialPayout(amount(counters.potentialPayoutCents.sum()))
+                .unpricedStake(amount(selectionUnpriced))
+                .build());
+        }
+        views.sort(Comparator.comparing(EventExposureResponse.Selection::getEventMarketId)
+            .thenComparing(EventExposureResponse.Selection::getEventWinnerId));
+        return Optional.of(EventExposureResponse.builder()
+            .eventId(eventId)
+            .openBets(openBets)
+            .totalStake(amount(stakeCents))
+            .totalUnpricedStake(amount(unpricedStakeCents))
+            .selections(views)
+            .build());
+    }
+
+    private void add(Bet bet, int sign) {
+        EventCounters event = enter(bet.getEventId());
+        Counters counters;
+        try {
+            counters = event.selections.computeIfAbsent(
+                new Selection(bet.getEventMarketId(), bet.getEventWinnerId()), selection -> new Counters());
+            long stakeCents = BetSettlement.toCents(bet.getBetAmount());
+            counters.openBets.add(sign);
+            counters.stakeCents.add(sign * stakeCents);
+            if (bet.getOdds() != null) {
+                counters.potentialPayoutCents.add(sign * PayoutCalculator.payoutCents(bet.getBetAmount(), bet.getOdds()));
+            } else {
+                counters.unpricedStakeCents.add(sign * stakeCents);
+            }
+        } finally {
+            event.exited.increment();
+        }
+        if (sign < 0 && counters.openBets.sum() == 0) {
+            removeIfClosed(bet.getEventId(), event);
+        }
+    }
+
+    /**
+     * Counters of an event that is not being removed, with the caller counted as updating them
+     */
+    private EventCounters enter(String eventId) {
+        while (true) {
+            EventCounters event = exposureByEvent.computeIfAbsent(eventId, id -> new EventCounters());
+            event.entered.increment();
+            if (!event.removing) {
+                return event;
+            }
+            // Lost a race with removeIfClosed: wait for it to keep or drop the event
+            event.exited.increment();
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Drop an event whose selections have no open bet. Marking it removing before reading the
+     * update counts means an update either sees the mark and retries, or is seen here as running.
+     * entered and exited only grow, so read in this order equal sums mean no update is in progress.
+     */
+    private void removeIfClosed(String eventId, EventCounters event) {
+        exposureByEvent.computeIfPresent(eventId, (id, current) -> {
+            if (current != event) {
+                return current;
+            }
+            event.removing = true;
+            long exited = event.exited.sum();
+            if (exited == event.entered.sum()
+                && event.selections.values().stream().allMatch(counters -> counters.openBets.sum() == 0)) {
+                return null;
+            }
+            event.removing = false;
+            return current;
+        });
+    }
+
+    private static BigDecimal amount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record Selection(String marketId, String winnerId) {
+    }
+
+    private static final class EventCounters {
+        private final ConcurrentMap<Selection, Counters> selections = new ConcurrentHashMap<>();
+        private final LongAdder entered = new LongAdder();
+        private final LongAdder exited = new LongAdder();
+        private volatile boolean removing;
+    }
+
+    private static final class Counters {
+        private final LongAdder openBets = new LongAdder();
+        private final LongAdder stakeCents = new LongAdder();
+        private final LongAdder potentialPayoutCents = new LongAdder();
+        private final LongAdder unpricedStakeCents = new LongAdder();
+    }
+}
@@ -0,0 +1,42 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.EventOdds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local odds provider backed by a map, for development and tests
+ */
+@Component
+@ConditionalOnProperty(name = "app.odds.provider", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryOddsProvider implements OddsProvider {
+    
+    private final Map<String, Map<String, Map<String, BigDecimal>>> odds = new ConcurrentHashMap<>();
+    
+    @Override
+    public EventOdds getEventOdds(String eventId) {
+        Map<String, Map<String, BigDecimal>> eventOdds = odds.get(eventId);
+        if (eventOdds == null) {
+            return EventOdds.empty();
+        }
+        
+        // Copy so the returned snapshot does not change under a cached reader
+        Map<String, Map<String, BigDecimal>> snapshot = new HashMap<>();
+        eventOdds.forEach((marketId, selections) -> snapshot.put(marketId, Map.copyOf(selections)));
+        return new EventOdds(eventId, snapshot);
+    }
+    
+    /**
+     * Set the odds of a selection in an event's market
+     */
+    public void putOdds(String eventId, String marketId, String selectionId, BigDecimal value) {
+        odds.computeIfAbsent(eventId, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(marketId, k -> new ConcurrentHashMap<>())
+            .put(selectionId, value);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.EventOutcome;
+
+import java.util.Set;
+
+/**
+ * Outcome implied by an event's won bets, or null if no market has a single winning selection, and the
+ * markets left out because their won bets are on more than one selection
+ */
+public record InferredOutcome(EventOutcome outcome, Set<String> ambiguousMarkets) {
+}
@@ -0,0 +1,55 @@
+package com.sportygroup.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sportygroup.model.EventOdds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of event odds in front of the {@link OddsProvider}.
+ * Settlement fetches one snapshot per event, so the provider is called at most once per event
+ * and TTL rather than once per bet. Size is bounded by the number of events kept.
+ * Hit and miss counts, evictions and load latency are published as cache.* metrics tagged cache=odds.
+ */
+@Component
+@Slf4j
+public class OddsCache {
+    
+    private final LoadingCache<String, EventOdds> cache;
+    
+    public OddsCache(OddsProvider oddsProvider,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.odds.cache.max-events:10000}") long maxEvents,
+                     @Value("${app.odds.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxEvents)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build(eventId -> {
+                log.debug("Loading odds for event: {}", eventId);
+                return oddsProvider.getEventOdds(eventId);
+            });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "odds");
+        meterRegistry.gauge("odds.cache.hit.ratio", cache, c -> c.stats().hitRate());
+    }
+    
+    /**
+     * Odds snapshot of an event, loaded from the provider on a miss
+     */
+    public EventOdds get(String eventId) {
+        return cache.get(eventId);
+    }
+    
+    /**
+     * Drop an event's snapshot, e.g. after its odds changed
+     */
+    public void invalidate(String eventId) {
+        cache.invalidate(eventId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.EventOdds;
+
+/**
+ * Source of event odds for settling bets placed without captured odds.
+ * Calls may be remote and slow, so settlement goes through {@link OddsCache}.
+ */
+public interface OddsProvider {
+    
+    /**
+     * Current odds of an event, or {@link EventOdds#empty()} if the provider has none
+     */
+    EventOdds getEventOdds(String eventId);
+}
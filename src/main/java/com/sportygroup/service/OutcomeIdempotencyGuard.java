@@ -0,0 +1,95 @@
+package com.sportygroup.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportygroup.repository.ProcessedOutcomeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency layer for event outcomes, keyed by event ID and outcome version.
+ * An outcome is claimed by inserting its processed_outcomes row in the settlement transaction,
+ * so of several concurrent deliveries only one can commit. Replays are rejected up front from a
+ * bounded in-memory map of the latest processed version per event, falling back to a primary key
+ * lookup for events not in the map. An outcome is a replay if a version at least as high has
+ * already been processed for its event.
+ * Deliveries of an outcome that is already being settled on this instance are turned away up front
+ * as well, so they do not queue on the claim's row lock behind a long settlement transaction.
+ */
+@Component
+@Slf4j
+public class OutcomeIdempotencyGuard {
+    
+    private final ProcessedOutcomeRepository processedOutcomeRepository;
+    private final Cache<String, Long> latestVersions;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    public OutcomeIdempotencyGuard(ProcessedOutcomeRepository processedOutcomeRepository,
+                                   @Value("${app.settlement.idempotency.max-events:100000}") long maxEvents) {
+        this.processedOutcomeRepository = processedOutcomeRepository;
+        this.latestVersions = Caffeine.newBuilder().maximumSize(maxEvents).build();
+    }
+    
+    /**
+     * Whether this or a later version of the event's outcome has already been settled
+     */
+    public boolean isProcessed(String eventId, long outcomeVersion) {
+        Long latest = latestVersions.getIfPresent(eventId);
+        if (latest != null && latest >= outcomeVersion) {
+            return true;
+        }
+        
+        latest = processedOutcomeRepository.findLatestVersion(eventId);
+        if (latest == null) {
+            return false;
+        }
+        remember(eventId, latest);
+        return latest >= outcomeVersion;
+    }
+    
+    /**
+     * Mark an outcome version as being settled on this instance.
+     * Returns false if it already is; otherwise the caller must call {@link #end} when done.
+     */
+    public boolean tryBegin(String eventId, long outcomeVersion) {
+        return inFlight.add(inFlightKey(eventId, outcomeVersion));
+    }
+    
+    public void end(String eventId, long outcomeVersion) {
+        inFlight.remove(inFlightKey(eventId, outcomeVersion));
+    }
+    
+    /**
+     * Claim an outcome version within the caller's settlement transaction.
+     * Throws a DataIntegrityViolationException if another delivery has already claimed it;
+     * the claim becomes visible to {@link #isProcessed} once the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(String eventId, long outcomeVersion) {
+        processedOutcomeRepository.insert(eventId, outcomeVersion, LocalDateTime.now());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(eventId, outcomeVersion);
+            }
+        });
+        log.debug("Claimed outcome version {} of event: {}", outcomeVersion, eventId);
+    }
+    
+    private static String inFlightKey(String eventId, long outcomeVersion) {
+        return eventId + '#' + outcomeVersion;
+    }
+    
+    private void remember(String eventId, long outcomeVersion) {
+        latestVersions.asMap().merge(eventId, outcomeVersion, Math::max);
+    }
+}
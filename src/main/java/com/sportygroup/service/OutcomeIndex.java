@@ -0,0 +1,106 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash index of market to winning selection, built once per event outcome.
+ * Settling a bet is one hash lookup on its market plus one comparison of the selection.
+ * Markets without an explicit result fall back to the outcome's event winner, if there is one;
+ * otherwise they are unresulted and their bets stay pending. Bets of a cancelled event or of a
+ * voided market are void, whatever the results say.
+ */
+public final class OutcomeIndex {
+    
+    // Version of outcomes published without one
+    private static final long INITIAL_VERSION = 1L;
+    
+    private final String eventId;
+    private final long outcomeVersion;
+    private final String defaultWinnerId;
+    private final Map<String, String> winnerByMarket;
+    private final boolean cancelled;
+    private final Set<String> voidedMarkets;
+    
+    private OutcomeIndex(String eventId, long outcomeVersion, String defaultWinnerId, Map<String, String> winnerByMarket,
+                         boolean cancelled, Set<String> voidedMarkets) {
+        this.eventId = eventId;
+        this.outcomeVersion = outcomeVersion;
+        this.defaultWinnerId = defaultWinnerId;
+        this.winnerByMarket = winnerByMarket;
+        this.cancelled = cancelled;
+        this.voidedMarkets = voidedMarkets;
+    }
+    
+    /**
+     * Build the index for an event outcome
+     */
+    public static OutcomeIndex of(EventOutcome eventOutcome) {
+        Map<String, String> marketResults = eventOutcome.getMarketResults();
+        Map<String, String> winnerByMarket = marketResults == null || marketResults.isEmpty()
+            ? Collections.emptyMap()
+            : new HashMap<>(marketResults);
+        long outcomeVersion = eventOutcome.getOutcomeVersion() == null ? INITIAL_VERSION : eventOutcome.getOutcomeVersion();
+        Set<String> voidedMarkets = eventOutcome.getVoidedMarkets() == null
+            ? Collections.emptySet()
+            : Set.copyOf(eventOutcome.getVoidedMarkets());
+        return new OutcomeIndex(eventOutcome.getEventId(), outcomeVersion, eventOutcome.getEventWinnerId(), winnerByMarket,
+            eventOutcome.isCancelled(), voidedMarkets);
+    }
+    
+    /**
+     * Settlement status of a bet under this outcome, or null if the bet's market has no result
+     */
+    public BetStatus settle(Bet bet) {
+        if (cancelled || voidedMarkets.contains(bet.getEventMarketId())) {
+            return BetStatus.VOID;
+        }
+        String winnerId = winnerByMarket.getOrDefault(bet.getEventMarketId(), defaultWinnerId);
+        if (winnerId == null) {
+            return null;
+        }
+        return winnerId.equals(bet.getEventWinnerId()) ? BetStatus.WON : BetStatus.LOST;
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public long getOutcomeVersion() {
+        return outcomeVersion;
+    }
+    
+    /**
+     * Winner applied to markets without an explicit result, or null if only listed markets are resulted
+     */
+    public String getDefaultWinnerId() {
+        return defaultWinnerId;
+    }
+    
+    /**
+     * Explicit per-market results
+     */
+    public Map<String, String> getWinnerByMarket() {
+        return Collections.unmodifiableMap(winnerByMarket);
+    }
+    
+    /**
+     * Whether the whole event is cancelled and every bet void
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Markets whose bets are void
+     */
+    public Set<String> getVoidedMarkets() {
+        return voidedMarkets;
+    }
+}
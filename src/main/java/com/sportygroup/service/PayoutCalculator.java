@@ -0,0 +1,49 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.BetSettlement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Payout of a winning bet in cents: bet amount × decimal odds, rounded half-even to the cent.
+ * Amounts with at most 2 decimals and 8 integer digits and odds with at most 4 decimals and
+ * 4 integer digits (the bets table's columns, in practice) are multiplied as longs in 1e-6 units,
+ * which cannot overflow and gives exactly the BigDecimal result. Anything else takes the BigDecimal path.
+ */
+final class PayoutCalculator {
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int ODDS_SCALE = 4;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    private PayoutCalculator() {
+    }
+
+    static long payoutCents(BigDecimal amount, BigDecimal odds) {
+        if (fitsFixedPoint(amount, AMOUNT_SCALE, 8) && fitsFixedPoint(odds, ODDS_SCALE, 4)) {
+            long product = toUnits(amount, AMOUNT_SCALE) * toUnits(odds, ODDS_SCALE);
+            return divideHalfEven(product, POWERS_OF_TEN[ODDS_SCALE]);
+        }
+        return BetSettlement.toCents(amount.multiply(odds));
+    }
+
+    private static boolean fitsFixedPoint(BigDecimal value, int maxScale, int maxIntegerDigits) {
+        int scale = value.scale();
+        return value.signum() >= 0 && scale >= 0 && scale <= maxScale && value.precision() - scale <= maxIntegerDigits;
+    }
+
+    private static long toUnits(BigDecimal value, int scale) {
+        // Moving the point by the value's own scale yields a compact scale-0 value that does not escape
+        return value.movePointRight(value.scale()).longValueExact() * POWERS_OF_TEN[scale - value.scale()];
+    }
+
+    private static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long twiceRemainder = 2 * (dividend % divisor);
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
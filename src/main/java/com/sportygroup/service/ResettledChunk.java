@@ -0,0 +1,12 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+
+import java.util.List;
+
+/**
+ * One committed chunk of a resettlement: how many settled bets were scanned, the bets whose status
+ * changed under the outcome, and the winning bets whose status did not change
+ */
+public record ResettledChunk(int scanned, List<Bet> changed, List<Bet> unchangedWinners) {
+}
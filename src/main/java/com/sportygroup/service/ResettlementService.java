@@ -0,0 +1,313 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.dto.ResettlementReport;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.model.OutcomeSource;
+import com.sportygroup.repository.BetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays settlement of already settled bets with the current matching logic and republishes only
+ * what differs. Each event's WON, LOST and VOID bets are streamed from the bets table in bet ID order one
+ * chunk at a time; a chunk's changed bets are updated and their settlements written to the outbox
+ * in one transaction together with the run's checkpoint for the event, so resubmitting a run ID
+ * continues after the last committed chunk. Events run in parallel on parallelism threads, all
+ * workers together are paced to max-bets-per-second, and workers pause while live settlement is
+ * saturated. Reports of runs are kept in memory; the checkpoints survive restarts.
+ */
+@Service
+@Slf4j
+public class ResettlementService {
+
+    private static final long BACKPRESSURE_POLL_MILLIS = 100;
+
+    private final BetService betService;
+    private final BetMatchingService betMatchingService;
+    private final SettlementOutboxService settlementOutboxService;
+    private final OddsCache oddsCache;
+    // Absent unless parallel settlement is enabled
+    private final SettlementExecutor settlementExecutor;
+    private final BetRepository betRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactories threadFactories;
+    private final int chunkSize;
+    private final long nanosPerBet;
+    private final ExecutorService pool;
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final ConcurrentMap<String, Run> runs = new ConcurrentHashMap<>();
+
+    public ResettlementService(BetService betService,
+                               BetMatchingService betMatchingService,
+                               SettlementOutboxService settlementOutboxService,
+                               OddsCache oddsCache,
+                               ObjectProvider<SettlementExecutor> settlementExecutor,
+                               BetRepository betRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               ThreadFactories threadFactories,
+                               @Value("${app.resettlement.parallelism:2}") int parallelism,
+                               @Value("${app.resettlement.chunk-size:1000}") int chunkSize,
+                               @Value("${app.resettlement.max-bets-per-second:5000}") long maxBetsPerSecond) {
+        this.betService = betService;
+        this.betMatchingService = betMatchingService;
+        this.settlementOutboxService = settlementOutboxService;
+        this.oddsCache = oddsCache;
+        this.settlementExecutor = settlementExecutor.getIfAvailable();
+        this.betRepository = betRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.threadFactories = threadFactories;
+        this.chunkSize = chunkSize;
+        // Zero or less turns the throttle off
+        this.nanosPerBet = maxBetsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxBetsPerSecond : 0;
+        this.pool = Executors.newFixedThreadPool(parallelism, threadFactories.named("resettlement"));
+    }
+
+    /**
+     * Start a run over the events listed, those of the outcomes given, and those with bets settled
+     * in [settledFrom, settledTo). Events without a given outcome are re-checked against the
+     * winners implied by their won bets. Returns the run's first report; fails if a run with the
+     * same ID is still running.
+     */
+    public ResettlementReport start(String runId,
+                                    Collection<String> eventIds,
+                                    LocalDateTime settledFrom,
+                                    LocalDateTime settledTo,
+                                    Collection<EventOutcome> outcomes,
+                                    boolean republishWinners) {
+        Run run = runs.compute(runId, (id, existing) -> {
+            if (existing != null && existing.status == ResettlementReport.Status.RUNNING) {
+                throw new IllegalStateException("Resettlement run " + id + " is already running");
+            }
+            return new Run(id, republishWinners);
+        });
+        Map<String, EventOutcome> outcomesByEvent = new LinkedHashMap<>();
+        if (outcomes != null) {
+            outcomes.forEach(outcome -> outcomesByEvent.put(outcome.getEventId(), outcome));
+        }
+        List<String> listed = eventIds == null ? List.of() : List.copyOf(eventIds);
+        threadFactories.named("resettlement-run-" + runId)
+            .newThread(() -> execute(run, listed, settledFrom, settledTo, outcomesByEvent))
+            .start();
+        return run.report();
+    }
+
+    /**
+     * Report of a run started since the application started
+     */
+    public Optional<ResettlementReport> getReport(String runId) {
+        return Optional.ofNullable(runs.get(runId)).map(Run::report);
+    }
+
+    private void execute(Run run, List<String> eventIds, LocalDateTime settledFrom, LocalDateTime settledTo,
+                         Map<String, EventOutcome> outcomesByEvent) {
+        try {
+            Map<String, EventOutcome> events = new LinkedHashMap<>(outcomesByEvent);
+            eventIds.forEach(eventId -> events.putIfAbsent(eventId, null));
+            if (settledFrom != null && settledTo != null) {
+                betRepository.findEventIdsSettledBetween(settledFrom, settledTo)
+                    .forEach(eventId -> events.putIfAbsent(eventId, null));
+            }
+            run.events = events.size();
+            log.info("Resettlement run {} started for {} events", run.runId, events.size());
+
+            List<Callable<Void>> tasks = new ArrayList<>(events.size());
+            events.forEach((eventId, outcome) -> tasks.add(() -> {
+                resettleEvent(run, eventId, outcome);
+                return null;
+            }));
+            for (Future<Void> event : pool.invokeAll(tasks)) {
+                event.get();
+            }
+            run.finish(ResettlementReport.Status.COMPLETED, null);
+        } catch (ExecutionException e) {
+            log.error("Resettlement run {} failed", run.runId, e.getCause());
+            run.finish(ResettlementReport.Status.FAILED, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(ResettlementReport.Status.FAILED, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Resettlement run {} failed", run.runId, e);
+            run.finish(ResettlementReport.Status.FAILED, e.getMessage());
+        }
+        ResettlementReport report = run.report();
+        log.info("Resettlement run {} {}: {} events ({} skipped, {} ambiguous markets skipped), {} bets scanned, {} changed, {} settlements republished in {} ms ({} bets/s)",
+            report.getRunId(), report.getStatus(), report.getEvents(), report.getEventsSkipped(), report.getMarketsSkipped(), report.getBetsScanned(),
+            report.getBetsChanged(), report.getSettlementsRepublished(), report.getElapsedMillis(),
+            Math.round(report.getBetsPerSecond()));
+    }
+
+    private void resettleEvent(Run run, String eventId, EventOutcome outcome) throws InterruptedException {
+        EventOutcome eventOutcome = outcome != null ? outcome : inferOutcome(run, eventId);
+        if (eventOutcome == null) {
+            log.debug("Skipping resettlement of event {}: no outcome given and no market with a single winning selection", eventId);
+            run.eventsSkipped.incrementAndGet();
+            return;
+        }
+        OutcomeIndex index = OutcomeIndex.of(eventOutcome);
+        EventOdds odds = oddsCache.get(eventId);
+
+        ResettledChunk chunk;
+        do {
+            awaitLiveSettlement();
+            throttle();
+            chunk = transactionTemplate.execute(status -> resettleChunk(run, index, eventOutcome, odds));
+            if (chunk != null) {
+                int republished = chunk.changed().size() + (run.republishWinners ? chunk.unchangedWinners().size() : 0);
+                run.betsScanned.addAndGet(chunk.scanned());
+                run.betsChanged.addAndGet(chunk.changed().size());
+                run.settlementsRepublished.addAndGet(republished);
+                meterRegistry.counter("resettlement.bets.scanned").increment(chunk.scanned());
+                meterRegistry.counter("resettlement.bets.changed").increment(chunk.changed().size());
+            }
+        } while (chunk != null);
+        run.eventsCompleted.incrementAndGet();
+    }
+
+    /**
+     * Outcome implied by the event's won bets, counting the markets left out as ambiguous
+     */
+    private EventOutcome inferOutcome(Run run, String eventId) {
+        InferredOutcome inferred = betService.inferOutcome(eventId);
+        run.marketsSkipped.addAndGet(inferred.ambiguousMarkets().size());
+        return inferred.outcome();
+    }
+
+    /**
+     * Resettle the next chunk and enqueue the settlements to republish, in the caller's transaction.
+     * Returns null once the event has no settled bets left after the run's checkpoint.
+     */
+    private ResettledChunk resettleChunk(Run run, OutcomeIndex index, EventOutcome eventOutcome, EventOdds odds) {
+        ResettledChunk chunk = betService.resettleNextChunk(run.runId, index, chunkSize);
+        if (chunk == null) {
+            return null;
+        }
+        List<Bet> republished = new ArrayList<>(chunk.changed());
+        if (run.republishWinners) {
+            republished.addAll(chunk.unchangedWinners());
+        }
+        List<BetSettlement> settlements = new ArrayList<>(republished.size());
+        for (Bet bet : republished) {
+            settlements.add(betMatchingService.createBetSettlement(bet, eventOutcome, odds));
+        }
+        settlementOutboxService.enqueue(settlements, (OutcomeSource) null);
+        return chunk;
+    }
+
+    /**
+     * Wait for the next chunk's share of max-bets-per-second, shared by all workers
+     */
+    private void throttle() throws InterruptedException {
+        if (nanosPerBet == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long permit = nextPermitNanos.getAndAccumulate(chunkSize * nanosPerBet, (next, cost) -> Math.max(next, now) + cost);
+        long waitNanos = permit - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Live outcomes come first: once the settlement executor is saturated, wait until it has drained.
+     * Without parallel settlement there is no executor to wait for.
+     */
+    private void awaitLiveSettlement() throws InterruptedException {
+        if (settlementExecutor == null || !settlementExecutor.isSaturated()) {
+            return;
+        }
+        log.debug("Pausing resettlement while live settlement is saturated");
+        while (!settlementExecutor.isDrained()) {
+            TimeUnit.MILLISECONDS.sleep(BACKPRESSURE_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Stop the workers; a chunk that is interrupted rolls back and is redone when the run is resubmitted
+     */
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Run {
+        private final String runId;
+        private final boolean republishWinners;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger eventsCompleted = new AtomicInteger();
+        private final AtomicInteger eventsSkipped = new AtomicInteger();
+        private final AtomicInteger marketsSkipped = new AtomicInteger();
+        private final AtomicLong betsScanned = new AtomicLong();
+        private final AtomicLong betsChanged = new AtomicLong();
+        private final AtomicLong settlementsRepublished = new AtomicLong();
+        private volatile int events;
+        private volatile ResettlementReport.Status status = ResettlementReport.Status.RUNNING;
+        private volatile long elapsedNanos = -1;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Run(String runId, boolean republishWinners) {
+            this.runId = runId;
+            this.republishWinners = republishWinners;
+        }
+
+        private void finish(ResettlementReport.Status status, String error) {
+            this.elapsedNanos = System.nanoTime() - startNanos;
+            this.finishedAt = LocalDateTime.now();
+            this.error = error;
+            this.status = status;
+        }
+
+        private ResettlementReport report() {
+            long elapsed = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+            long scanned = betsScanned.get();
+            return ResettlementReport.builder()
+                .runId(runId)
+                .status(status)
+                .events(events)
+                .eventsCompleted(eventsCompleted.get())
+                .eventsSkipped(eventsSkipped.get())
+                .marketsSkipped(marketsSkipped.get())
+                .betsScanned(scanned)
+                .betsChanged(betsChanged.get())
+                .settlementsRepublished(settlementsRepublished.get())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .betsPerSecond(elapsed > 0 ? scanned * 1e9 / elapsed : 0)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles events in parallel while keeping each event's outcomes in order.
+ * Work is sharded by event ID hash over a fixed number of single-threaded workers, each with a
+ * bounded queue, so outcomes of one event run one after another on the same worker while other
+ * events proceed on the others. Submitting to a full queue blocks; callers that can stop
+ * producing should do so once {@link #isSaturated()} and wait for {@link #isDrained()}.
+ * Publishes the depth of each shard's queue as the settlement.executor.queue.depth gauge.
+ * Only created, and its workers only started, with app.settlement.executor.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "app.settlement.executor.enabled", havingValue = "true")
+@Slf4j
+public class SettlementExecutor {
+
+    private final List<BlockingQueue<Runnable>> queues;
+    private final List<Thread> workers;
+    private final int pauseDepth;
+    private final int resumeDepth;
+    private volatile boolean running = true;
+
+    public SettlementExecutor(MeterRegistry meterRegistry,
+                              ThreadFactories threadFactories,
+                              @Value("${app.settlement.executor.shards:4}") int shards,
+                              @Value("${app.settlement.executor.queue-capacity:1000}") int queueCapacity,
+                              @Value("${app.settlement.executor.pause-depth:500}") int pauseDepth,
+                              @Value("${app.settlement.executor.resume-depth:100}") int resumeDepth) {
+        this.pauseDepth = pauseDepth;
+        this.resumeDepth = resumeDepth;
+        this.queues = new ArrayList<>(shards);
+        this.workers = new ArrayList<>(shards);
+        // One factory for all shards, so worker n is named settlement-worker-n
+        ThreadFactory workerFactory = threadFactories.named("settlement-worker");
+        for (int shard = 0; shard < shards; shard++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Gauge.builder("settlement.executor.queue.depth", queue, BlockingQueue::size)
+                .description("Event outcomes waiting for a settlement worker")
+                .tag("shard", String.valueOf(shard))
+                .register(meterRegistry);
+            Thread worker = workerFactory.newThread(() -> work(queue));
+            worker.start();
+            queues.add(queue);
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Queue a task on the shard of the event, blocking while that shard's queue is full
+     */
+    public void execute(String eventId, Runnable task) throws InterruptedException {
+        queues.get(Math.floorMod(eventId.hashCode(), queues.size())).put(task);
+    }
+
+    /**
+     * True once any shard has at least pause-depth tasks waiting
+     */
+    public boolean isSaturated() {
+        return queues.stream().anyMatch(queue -> queue.size() >= pauseDepth);
+    }
+
+    /**
+     * True while every shard has at most resume-depth tasks waiting
+     */
+    public boolean isDrained() {
+        return queues.stream().allMatch(queue -> queue.size() <= resumeDepth);
+    }
+
+    private void work(BlockingQueue<Runnable> queue) {
+        while (running || !queue.isEmpty()) {
+            try {
+                Runnable task = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Settlement task failed on {}", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Let the workers finish what is queued, for up to ten seconds. Outcomes still queued after
+     * that were never committed to Kafka and are redelivered on restart.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            worker.interrupt();
+        }
+    }
+}
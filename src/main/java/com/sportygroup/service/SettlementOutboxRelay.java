@@ -0,0 +1,208 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.SettlementOutbox;
+import com.sportygroup.repository.SettlementOutboxLeaseRepository;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that drains the settlement outbox to RocketMQ.
+ * Every poll drains each shard on the relay pool in batches of up to the configured size, in
+ * insertion order, and deletes the entries the broker acknowledged. A shard stops at its first
+ * failed batch for this poll, and the failed entries stay in the outbox to be retried by the next
+ * poll, so delivery is at least once and settlements of an event keep their order.
+ * Instances sharing the outbox take turns per shard: an instance drains a shard only while it holds
+ * the shard's lease, renewed before every batch and valid for app.settlement.outbox.lease-ms. A lease
+ * not renewed in time, for example after a crash, can be taken over by another instance once expired.
+ * Publishes the outbox backlog and its age as settlement.outbox.pending and settlement.outbox.lag.seconds,
+ * and the drain rate through the settlement.outbox.relayed counter. For settlements of outcomes consumed
+ * from Kafka, settlement.end.to.end.lag records the time from the Kafka record timestamp to the broker's
+ * acknowledgement of the settlement, tagged by the outcome's topic and partition.
+ */
+@Component
+@Slf4j
+public class SettlementOutboxRelay {
+    
+    private final SettlementOutboxRepository settlementOutboxRepository;
+    private final SettlementOutboxLeaseRepository settlementOutboxLeaseRepository;
+    private final SettlementOutboxService settlementOutboxService;
+    private final BetSettlementService betSettlementService;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService relayPool;
+    private final Map<String, Timer> endToEndLagTimers = new ConcurrentHashMap<>();
+    private final Counter relayedCounter;
+    private final Timer pollTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    // Identifies this instance as a lease owner
+    private final String owner = UUID.randomUUID().toString();
+    private final Duration leaseDuration;
+    
+    @Value("${app.settlement.outbox.batch-size:1000}")
+    private int batchSize;
+    
+    public SettlementOutboxRelay(SettlementOutboxRepository settlementOutboxRepository,
+                                 SettlementOutboxLeaseRepository settlementOutboxLeaseRepository,
+                                 SettlementOutboxService settlementOutboxService,
+                                 BetSettlementService betSettlementService,
+                                 MeterRegistry meterRegistry,
+                                 ThreadFactories threadFactories,
+                                 @Value("${app.settlement.outbox.parallelism:4}") int parallelism,
+                                 @Value("${app.settlement.outbox.lease-ms:30000}") long leaseMillis) {
+        this.settlementOutboxRepository = settlementOutboxRepository;
+        this.settlementOutboxLeaseRepository = settlementOutboxLeaseRepository;
+        this.leaseDuration = Duration.ofMillis(leaseMillis);
+        this.settlementOutboxService = settlementOutboxService;
+        this.betSettlementService = betSettlementService;
+        this.meterRegistry = meterRegistry;
+        this.relayPool = Executors.newFixedThreadPool(parallelism, threadFactories.named("outbox-relay"));
+        this.relayedCounter = Counter.builder("settlement.outbox.relayed")
+            .description("Settlements relayed from the outbox to RocketMQ")
+            .register(meterRegistry);
+        this.pollTimer = Timer.builder("settlement.outbox.poll")
+            .description("Duration of one outbox relay poll")
+            .register(meterRegistry);
+        meterRegistry.gauge("settlement.outbox.pending", pending);
+        meterRegistry.gauge("settlement.outbox.lag.seconds", lagMillis, millis -> millis.get() / 1000.0);
+    }
+    
+    /**
+     * Drain all shards once. Scheduled with a fixed delay, so polls never overlap.
+     */
+    @Scheduled(fixedDelayString = "${app.settlement.outbox.poll-interval-ms:200}")
+    public void relay() {
+        long start = System.nanoTime();
+        List<CompletableFuture<Integer>> shards = new ArrayList<>(settlementOutboxService.getShards());
+        for (int shard = 0; shard < settlementOutboxService.getShards(); shard++) {
+            int current = shard;
+            shards.add(CompletableFuture.supplyAsync(() -> drainShard(current), relayPool));
+        }
+        int relayed = shards.stream().mapToInt(CompletableFuture::join).sum();
+        pollTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        
+        LocalDateTime oldest = settlementOutboxRepository.findOldestCreatedAt();
+        pending.set(oldest == null ? 0 : settlementOutboxRepository.count());
+        lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        
+        if (relayed > 0) {
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("Relayed {} bet settlements from the outbox ({} /s, {} pending)",
+                relayed, String.format("%.0f", relayed / seconds), pending.get());
+        }
+    }
+    
+    private int drainShard(int shard) {
+        int relayed = 0;
+        try {
+            List<SettlementOutbox> entries;
+            // Another instance is draining the shard, or took it over after this lease expired
+            while (holdLease(shard)
+                   && !(entries = settlementOutboxRepository.findByShardOrderByIdAsc(shard, PageRequest.ofSize(batchSize))).isEmpty()) {
+                List<BetSettlement> settlements = new ArrayList<>(entries.size());
+                entries.forEach(entry -> settlements.add(entry.toSettlement()));
+                
+                Set<BetSettlement> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+                failed.addAll(betSettlementService.sendBetSettlements(settlements));
+                
+                long sentAt = System.currentTimeMillis();
+                List<Long> sentIds = new ArrayList<>(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    if (!failed.contains(settlements.get(i))) {
+                        sentIds.add(entries.get(i).getId());
+                        recordEndToEndLag(entries.get(i), sentAt);
+                    }
+                }
+                if (!sentIds.isEmpty()) {
+                    settlementOutboxRepository.deleteAllByIdInBatch(sentIds);
+                }
+                relayedCounter.increment(sentIds.size());
+                relayed += sentIds.size();
+                
+                if (!failed.isEmpty()) {
+                    log.warn("{} bet settlements of outbox shard {} failed to publish, retrying on the next poll",
+                        failed.size(), shard);
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error relaying outbox shard {}", shard, e);
+        }
+        return relayed;
+    }
+    
+    /**
+     * Take or renew this instance's lease of a shard; false if another instance holds it
+     */
+    private boolean holdLease(int shard) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+        if (settlementOutboxLeaseRepository.acquire(shard, owner, now, expiresAt) == 1) {
+            return true;
+        }
+        if (settlementOutboxLeaseRepository.existsById(shard)) {
+            return false;
+        }
+        try {
+            settlementOutboxLeaseRepository.insert(shard, owner, expiresAt);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the shard's lease first
+            return false;
+        }
+    }
+    
+    private void recordEndToEndLag(SettlementOutbox entry, long sentAt) {
+        if (entry.getSourceTimestamp() == null) {
+            return;
+        }
+        Timer timer = endToEndLagTimers.computeIfAbsent(entry.getSourceTopic() + '#' + entry.getSourcePartition(),
+            key -> Timer.builder("settlement.end.to.end.lag")
+                .description("Time from the event outcome's Kafka record timestamp to its settlement being published")
+                .tags(Tags.of("topic", entry.getSourceTopic(), "partition", String.valueOf(entry.getSourcePartition())))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        timer.record(sentAt - entry.getSourceTimestamp(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        relayPool.shutdown();
+        try {
+            if (relayPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                settlementOutboxLeaseRepository.releaseAll(owner, LocalDateTime.now());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Failed to release outbox shard leases; they expire in {}", leaseDuration, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.OutcomeSource;
+import com.sportygroup.model.SettlementOutbox;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes bet settlements to the outbox as part of the transaction that settles the bets.
+ * {@link SettlementOutboxRelay} publishes them to RocketMQ after the commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementOutboxService {
+    
+    private final SettlementOutboxRepository settlementOutboxRepository;
+    private final EntityManager entityManager;
+    
+    @Value("${app.settlement.outbox.shards:4}")
+    private int shards;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    /**
+     * Add the settlements of one event outcome to the outbox in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(List<BetSettlement> settlements, OutcomeSource source) {
+        enqueue(settlements, eventId -> source);
+    }
+    
+    /**
+     * Add the settlements of several event outcomes to the outbox in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(List<BetSettlement> settlements, Map<String, OutcomeSource> sourcesByEvent) {
+        enqueue(settlements, sourcesByEvent::get);
+    }
+    
+    /**
+     * Inserts go out as JDBC batches and the persistence context is flushed and cleared after each
+     * batch, so pending changes of the caller are flushed along with them.
+     */
+    private void enqueue(List<BetSettlement> settlements, Function<String, OutcomeSource> sourceOfEvent) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < settlements.size(); from += batchSize) {
+            List<SettlementOutbox> entries = new ArrayList<>(batchSize);
+            for (BetSettlement settlement : settlements.subList(from, Math.min(from + batchSize, settlements.size()))) {
+                String eventId = settlement.eventId();
+                entries.add(SettlementOutbox.of(settlement, shardOf(eventId), now, sourceOfEvent.apply(eventId)));
+            }
+            settlementOutboxRepository.saveAll(entries);
+            settlementOutboxRepository.flush();
+            entityManager.clear();
+        }
+        log.debug("Enqueued {} bet settlements in the outbox", settlements.size());
+    }
+    
+    /**
+     * Outbox shard of an event; all settlements of an event share one shard and so keep their order
+     */
+    public int shardOf(String eventId) {
+        return Math.floorMod(eventId.hashCode(), shards);
+    }
+    
+    public int getShards() {
+        return shards;
+    }
+}
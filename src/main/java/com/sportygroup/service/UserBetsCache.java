@@ -0,0 +1,82 @@
+package com.sportygroup.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sportygroup.model.Bet;
+import com.sportygroup.repository.BetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-through cache of each user's bet list in front of {@link BetRepository#findByUserId}.
+ * Entries are dropped once a transaction that created or settled one of the user's bets commits,
+ * and expire after the TTL in any case. Concurrent misses on one user wait for a single load
+ * instead of each querying the database. Size is bounded by the number of users kept.
+ * Hit and miss counts, evictions and load latency are published as cache.* metrics tagged cache=user-bets.
+ */
+@Component
+@Slf4j
+public class UserBetsCache {
+
+    private final BetRepository betRepository;
+    private final boolean enabled;
+    private final LoadingCache<String, List<Bet>> cache;
+
+    public UserBetsCache(BetRepository betRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.bets.user-cache.enabled:true}") boolean enabled,
+                         @Value("${app.bets.user-cache.max-users:10000}") long maxUsers,
+                         @Value("${app.bets.user-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.betRepository = betRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-bets");
+    }
+
+    /**
+     * Bets of a user, loaded from the database on a miss
+     */
+    public List<Bet> get(String userId) {
+        return enabled ? cache.get(userId) : betRepository.findByUserId(userId);
+    }
+
+    /**
+     * Drop the users' entries once the current transaction commits, or right away outside one.
+     * Dropping after commit keeps a concurrent load from caching the state before the change.
+     */
+    public void invalidate(Collection<String> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(userIds);
+            return;
+        }
+        Set<String> users = Set.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(users);
+            }
+        });
+    }
+
+    private List<Bet> load(String userId) {
+        log.debug("Loading bets of user: {}", userId);
+        return List.copyOf(betRepository.findByUserId(userId));
+    }
+}
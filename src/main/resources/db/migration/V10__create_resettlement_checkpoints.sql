@@ -0,0 +1,14 @@
+-- Progress of a resettlement run per event, so a resubmitted run resumes after the last committed chunk
+CREATE TABLE resettlement_checkpoints (
+    run_id        VARCHAR(255) NOT NULL,
+    event_id      VARCHAR(255) NOT NULL,
+    last_bet_id   BIGINT       NOT NULL,
+    scanned_count BIGINT       NOT NULL,
+    changed_count BIGINT       NOT NULL,
+    completed     BOOLEAN      NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (run_id, event_id)
+);
+
+-- Events whose bets were settled in a time range
+CREATE INDEX idx_bets_settled_at ON bets (settled_at);
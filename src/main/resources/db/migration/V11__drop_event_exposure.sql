@@ -0,0 +1,2 @@
+-- Exposure is rebuilt from the pending bets at startup, so the periodic snapshot was never read
+DROP TABLE event_exposure;
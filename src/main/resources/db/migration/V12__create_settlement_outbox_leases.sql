@@ -0,0 +1,7 @@
+-- Lease per outbox shard: a relay instance drains a shard only while it holds the shard's lease,
+-- so instances sharing the outbox never send the same entries or reorder a shard
+CREATE TABLE settlement_outbox_leases (
+    shard      INT          NOT NULL PRIMARY KEY,
+    owner      VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
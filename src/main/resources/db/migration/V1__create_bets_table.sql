@@ -0,0 +1,21 @@
+-- Bets placed by users, settled by event outcome
+CREATE TABLE bets (
+    bet_id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         VARCHAR(255)   NOT NULL,
+    event_id        VARCHAR(255)   NOT NULL,
+    event_market_id VARCHAR(255)   NOT NULL,
+    event_winner_id VARCHAR(255)   NOT NULL,
+    bet_amount      NUMERIC(10, 2) NOT NULL,
+    status          VARCHAR(255)   NOT NULL,
+    created_at      TIMESTAMP(6)   NOT NULL,
+    settled_at      TIMESTAMP(6)
+);
+
+-- Pending bets of an event (findByEventIdAndStatus, bulk settlement updates)
+CREATE INDEX idx_bets_event_status ON bets (event_id, status);
+
+-- Bet history of a user, newest first (findByUserId)
+CREATE INDEX idx_bets_user_created ON bets (user_id, created_at);
+
+-- Winning/losing selections of an event market (findWinningBets, findLosingBets)
+CREATE INDEX idx_bets_event_market_winner ON bets (event_id, event_market_id, event_winner_id);
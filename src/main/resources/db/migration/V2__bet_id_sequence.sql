@@ -0,0 +1,9 @@
+-- Bet IDs come from a sequence so Hibernate can batch inserts.
+-- The increment matches the allocationSize of the pooled optimizer on Bet.betId.
+CREATE SEQUENCE bet_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE bets ALTER COLUMN bet_id DROP IDENTITY;
+
+-- The pooled optimizer treats each value it reads as the top of a block of 50 IDs, so the next
+-- value must be at least 50 above the highest existing ID for the first block to stay clear of it
+ALTER SEQUENCE bet_seq RESTART WITH (SELECT COALESCE(MAX(bet_id), 0) + 50 FROM bets);
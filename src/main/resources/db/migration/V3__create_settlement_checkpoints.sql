@@ -0,0 +1,11 @@
+-- Progress of chunked settlement per event, so an interrupted run resumes after the last completed chunk
+CREATE TABLE settlement_checkpoints (
+    event_id      VARCHAR(255) NOT NULL PRIMARY KEY,
+    last_bet_id   BIGINT       NOT NULL,
+    settled_count BIGINT       NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+-- Pending bets of an event in ID order, so each chunk is an index range scan instead of a sort
+DROP INDEX idx_bets_event_status;
+CREATE INDEX idx_bets_event_status ON bets (event_id, status, bet_id);
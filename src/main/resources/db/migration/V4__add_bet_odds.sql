@@ -0,0 +1,2 @@
+-- Decimal odds captured when the bet is placed; NULL means the odds are looked up at settlement
+ALTER TABLE bets ADD COLUMN odds DECIMAL(10, 4);
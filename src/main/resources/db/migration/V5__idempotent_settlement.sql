@@ -0,0 +1,11 @@
+-- One row per settled (event, outcome version): the primary key is the claim that lets only one
+-- delivery of an outcome settle it, and replays are rejected with a primary key lookup
+CREATE TABLE processed_outcomes (
+    event_id        VARCHAR(255) NOT NULL,
+    outcome_version BIGINT       NOT NULL,
+    processed_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (event_id, outcome_version)
+);
+
+-- Optimistic lock version of each bet
+ALTER TABLE bets ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,17 @@
+-- Settlements written in the same transaction as the bet status change and relayed to RocketMQ afterwards
+CREATE SEQUENCE settlement_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE settlement_outbox (
+    id                BIGINT         NOT NULL PRIMARY KEY,
+    shard             INT            NOT NULL,
+    event_id          VARCHAR(255)   NOT NULL,
+    bet_id            BIGINT         NOT NULL,
+    user_id           VARCHAR(255)   NOT NULL,
+    settlement_status VARCHAR(255)   NOT NULL,
+    payout_amount     DECIMAL(12, 2) NOT NULL,
+    settlement_time   TIMESTAMP(6)   NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL
+);
+
+-- Each relay worker drains one shard in insertion order
+CREATE INDEX idx_settlement_outbox_shard ON settlement_outbox (shard, id);
@@ -0,0 +1,4 @@
+-- Kafka record the settlement originated from, for end-to-end lag metrics; NULL for outcomes not consumed from Kafka
+ALTER TABLE settlement_outbox ADD COLUMN source_topic VARCHAR(255);
+ALTER TABLE settlement_outbox ADD COLUMN source_partition INT;
+ALTER TABLE settlement_outbox ADD COLUMN source_timestamp BIGINT;
@@ -0,0 +1,5 @@
+-- Outbox payouts are stored in minor units, as the settlement carries them
+ALTER TABLE settlement_outbox ADD COLUMN payout_cents BIGINT;
+UPDATE settlement_outbox SET payout_cents = CAST(payout_amount * 100 AS BIGINT);
+ALTER TABLE settlement_outbox ALTER COLUMN payout_cents SET NOT NULL;
+ALTER TABLE settlement_outbox DROP COLUMN payout_amount;
@@ -0,0 +1,13 @@
+-- Periodic snapshot of the open stake and potential payout per event selection, written by
+-- ExposureTracker so exposure can be read without scanning bets
+CREATE TABLE event_exposure (
+    event_id               VARCHAR(255) NOT NULL,
+    event_market_id        VARCHAR(255) NOT NULL,
+    event_winner_id        VARCHAR(255) NOT NULL,
+    open_bets              BIGINT       NOT NULL,
+    stake_cents            BIGINT       NOT NULL,
+    potential_payout_cents BIGINT       NOT NULL,
+    unpriced_stake_cents   BIGINT       NOT NULL,
+    updated_at             TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (event_id, event_market_id, event_winner_id)
+);
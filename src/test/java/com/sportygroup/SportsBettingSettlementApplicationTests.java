@@ -1,12 +1,25 @@
 package com.sportygroup;
 
+import com.sportygroup.service.SettlementExecutor;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 class SportsBettingSettlementApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     void contextLoads() {
     }
+
+    @Test
+    void settlementExecutorIsOnlyCreatedWithParallelSettlementEnabled() {
+        assertEquals(0, context.getBeanNamesForType(SettlementExecutor.class).length);
+    }
 }
@@ -0,0 +1,74 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.service.BetService;
+import com.sportygroup.service.ExposureTracker;
+import com.sportygroup.service.OutcomeIdempotencyGuard;
+import com.sportygroup.service.UserBetsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts per second of single-row bet placement (one save and transaction per bet) against the
+ * batched bulk ingest that relies on pooled sequence IDs and JDBC batching.
+ * Run with: mvn test -Pbenchmark -Dtest=BetIngestBenchmark [-Dbench.bets=50000]
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "logging.level.com.sportygroup=WARN")
+@Import({BetService.class, UserBetsCache.class, ExposureTracker.class, OutcomeIdempotencyGuard.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BetIngestBenchmark {
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertsPerSecond() {
+        int bets = Integer.getInteger("bench.bets", 50000);
+
+        List<CreateBetRequest> single = requests("single", bets);
+        long start = System.nanoTime();
+        single.forEach(betService::createBet);
+        double singleRate = bets / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        List<CreateBetRequest> batch = requests("batch", bets);
+        start = System.nanoTime();
+        betService.createBets(batch);
+        double batchRate = bets / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        assertEquals(2L * bets, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bets", Long.class));
+        System.out.printf("%-10s %18s %18s %10s%n", "bets", "single inserts/s", "batch inserts/s", "speedup");
+        System.out.printf("%-10d %18.0f %18.0f %9.1fx%n", bets, singleRate, batchRate, batchRate / singleRate);
+    }
+
+    private List<CreateBetRequest> requests(String eventPrefix, int count) {
+        List<CreateBetRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(CreateBetRequest.builder()
+                .userId("user" + (i % 1000))
+                .eventId(eventPrefix + "-event" + (i % 100))
+                .eventMarketId("match-winner")
+                .eventWinnerId(i % 2 == 0 ? "team1" : "team2")
+                .betAmount(new BigDecimal("10.00"))
+                .build());
+        }
+        return requests;
+    }
+}
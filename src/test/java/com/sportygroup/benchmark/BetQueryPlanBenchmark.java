@@ -0,0 +1,111 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.repository.BetRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Query plans and lookup latency of the bet queries on a large table, with and without the
+ * composite indexes from the V1 migration.
+ * Run with: mvn test -Pbenchmark -Dtest=BetQueryPlanBenchmark [-Dbench.rows=10000000]
+ * (10M rows need roughly 6 GB of heap: add -Dtest.argLine=-Xmx8g)
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "logging.level.com.sportygroup=WARN")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BetQueryPlanBenchmark {
+
+    private static final int BETS_PER_EVENT = 100;
+    private static final int BETS_PER_USER = 10;
+    private static final int SEED_CHUNK = 1_000_000;
+
+    private static final String SEED_SQL =
+        "INSERT INTO bets (bet_id, user_id, event_id, event_market_id, event_winner_id, bet_amount, status, created_at) " +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || (X / " + BETS_PER_USER + "), 'event' || (X / " + BETS_PER_EVENT + "), " +
+        "CASE WHEN MOD(X, 2) = 0 THEN 'match-winner' ELSE 'over-under' END, " +
+        "CASE WHEN MOD(X, 3) = 0 THEN 'team1' ELSE 'team2' END, 10.00, " +
+        "CASE WHEN MOD(X, 5) = 0 THEN 'WON' ELSE 'PENDING' END, " +
+        "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') " +
+        "FROM SYSTEM_RANGE(?, ?)";
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lookupLatency() {
+        long rows = Long.getLong("bench.rows", 10_000_000L);
+        for (long from = 0; from < rows; from += SEED_CHUNK) {
+            jdbcTemplate.update(SEED_SQL, from, Math.min(from + SEED_CHUNK, rows) - 1);
+        }
+        long events = rows / BETS_PER_EVENT;
+        long users = rows / BETS_PER_USER;
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        plans.put("findByEventIdAndStatus",
+            "SELECT * FROM bets WHERE event_id = 'event1' AND status = 'PENDING'");
+        plans.put("findByUserId",
+            "SELECT * FROM bets WHERE user_id = 'user1'");
+        plans.put("findWinningBets",
+            "SELECT * FROM bets WHERE event_id = 'event1' AND event_winner_id = 'team1' AND status = 'PENDING'");
+        plans.put("findLosingBets",
+            "SELECT * FROM bets WHERE event_id = 'event1' AND event_winner_id <> 'team1' AND status = 'PENDING'");
+
+        System.out.printf("Seeded %d bets (%d events, %d users)%n", rows, events, users);
+        printPlans(plans);
+        Map<String, Double> indexed = measure(events, users, 200);
+
+        jdbcTemplate.execute("DROP INDEX idx_bets_event_status");
+        jdbcTemplate.execute("DROP INDEX idx_bets_user_created");
+        jdbcTemplate.execute("DROP INDEX idx_bets_event_market_winner");
+        printPlans(plans);
+        Map<String, Double> scanned = measure(events, users, 3);
+
+        System.out.printf("%-24s %16s %16s%n", "query", "indexed ms/op", "full scan ms/op");
+        indexed.forEach((query, millis) ->
+            System.out.printf("%-24s %16.3f %16.3f%n", query, millis, scanned.get(query)));
+    }
+
+    private Map<String, Double> measure(long events, long users, int iterations) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("findByEventIdAndStatus", time(iterations,
+            () -> betRepository.findByEventIdAndStatus(randomEvent(events), BetStatus.PENDING)));
+        latency.put("findByUserId", time(iterations,
+            () -> betRepository.findByUserId("user" + ThreadLocalRandom.current().nextLong(users))));
+        latency.put("findWinningBets", time(iterations,
+            () -> betRepository.findWinningBets(randomEvent(events), "team1", BetStatus.PENDING)));
+        latency.put("findLosingBets", time(iterations,
+            () -> betRepository.findLosingBets(randomEvent(events), "team1", BetStatus.PENDING)));
+        return latency;
+    }
+
+    private double time(int iterations, Runnable query) {
+        query.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private String randomEvent(long events) {
+        return "event" + ThreadLocalRandom.current().nextLong(events);
+    }
+
+    private void printPlans(Map<String, String> plans) {
+        plans.forEach((query, sql) -> System.out.printf("%s:%n%s%n", query,
+            jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.sportygroup.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the bets of one event with a single INSERT ... SELECT over SYSTEM_RANGE, so benchmarks can set up
+ * millions of rows without going through JPA
+ */
+final class BetSeeder {
+
+    private static final String INSERT_BETS =
+        "INSERT INTO bets (bet_id, user_id, event_id, event_market_id, event_winner_id, bet_amount, status, created_at) ";
+
+    private static final String PENDING_BETS_SQL = INSERT_BETS +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || MOD(X, 1000), ?, 'match-winner', " +
+        "CASE WHEN MOD(X, 3) = 0 THEN 'team1' ELSE 'team2' END, 10.00, 'PENDING', CURRENT_TIMESTAMP " +
+        "FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String TWO_MARKET_BETS_SQL = INSERT_BETS +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || MOD(X, 1000), ?, " +
+        "CASE WHEN MOD(X, 2) = 0 THEN 'match-winner' ELSE 'over-under' END, " +
+        "CASE WHEN MOD(X, 4) < 2 THEN 'team1' ELSE 'team2' END, 10.00, 'PENDING', CURRENT_TIMESTAMP " +
+        "FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String SETTLED_BETS_SQL =
+        "INSERT INTO bets (bet_id, user_id, event_id, event_market_id, event_winner_id, bet_amount, status, created_at, settled_at) " +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || MOD(X, 1000), ?, 'match-winner', " +
+        "CASE WHEN MOD(X, 2) = 0 THEN 'team1' ELSE 'team2' END, 10.00, " +
+        "CASE WHEN MOD(X, 2) = 0 AND MOD(X, 200) <> 0 THEN 'WON' ELSE 'LOST' END, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+        "FROM SYSTEM_RANGE(1, ?)";
+
+    private BetSeeder() {
+    }
+
+    /**
+     * Pending match-winner bets, a third of them on team1
+     */
+    static void seedPendingBets(JdbcTemplate jdbcTemplate, String eventId, int bets) {
+        jdbcTemplate.update(PENDING_BETS_SQL, eventId, bets);
+    }
+
+    /**
+     * Pending bets split evenly between the match-winner and over-under markets, half of each on team1
+     */
+    static void seedTwoMarketBets(JdbcTemplate jdbcTemplate, String eventId, int bets) {
+        jdbcTemplate.update(TWO_MARKET_BETS_SQL, eventId, bets);
+    }
+
+    /**
+     * Match-winner bets already settled as if team1 won, except every 200th team1 bet which is marked LOST
+     */
+    static void seedSettledBets(JdbcTemplate jdbcTemplate, String eventId, int bets) {
+        jdbcTemplate.update(SETTLED_BETS_SQL, eventId, bets);
+    }
+}
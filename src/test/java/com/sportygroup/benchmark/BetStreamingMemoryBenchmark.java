@@ -0,0 +1,160 @@
+package com.sportygroup.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Peak growth of the live heap (heap in use right after each collection) while reading every bet through the
+ * NDJSON stream and through keyset pages.
+ * The full-list endpoint is only measured when -Dbench.includeList=true, since it is expected
+ * to run out of memory at the default size.
+ * Run with: mvn test -Pbenchmark -Dtest=BetStreamingMemoryBenchmark [-Dbench.rows=5000000]
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN"
+})
+class BetStreamingMemoryBenchmark {
+
+    private static final Pattern NEXT_AFTER_ID = Pattern.compile("\"nextAfterId\":(\\d+)");
+    private static final int SEED_CHUNK = 500_000;
+
+    private static final String SEED_SQL =
+        "INSERT INTO bets (bet_id, user_id, event_id, event_market_id, event_winner_id, bet_amount, status, created_at) " +
+        "SELECT NEXT VALUE FOR bet_seq, 'user' || MOD(X, 100000), 'event' || MOD(X, 5000), 'match-winner', " +
+        "'team1', 10.00, 'PENDING', CURRENT_TIMESTAMP FROM SYSTEM_RANGE(?, ?)";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void peakHeapWhileReadingAllBets() throws Exception {
+        long rows = Long.getLong("bench.rows", 5_000_000L);
+        for (long from = 1; from <= rows; from += SEED_CHUNK) {
+            jdbcTemplate.update(SEED_SQL, from, Math.min(from + SEED_CHUNK - 1, rows));
+        }
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bets", Long.class);
+
+        System.out.printf("%-12s %12s %18s%n", "endpoint", "rows read", "live heap growth");
+        measure("stream", () -> countLines("/api/bets/stream"), total);
+        measure("keyset", this::readAllPages, total);
+        if (Boolean.getBoolean("bench.includeList")) {
+            measure("list", () -> countOccurrences("/api/bets", "\"betId\""), total);
+        }
+    }
+
+    private void measure(String name, ReadAll read, long expected) throws Exception {
+        // The in-memory database itself lives on the heap, so report growth over the live set before reading
+        System.gc();
+        long baseline = liveHeap();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(liveHeap(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long rowsRead = read.run();
+        running.set(false);
+        sampler.join();
+
+        assertEquals(expected, rowsRead);
+        System.out.printf("%-12s %12d %15d MB%n", name, rowsRead, (peak.get() - baseline) / (1024 * 1024));
+    }
+
+    private long liveHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private long readAllPages() throws IOException {
+        long read = 0;
+        String afterId = "";
+        while (true) {
+            String body = new String(open("/api/bets/page?limit=1000" + afterId).readAllBytes());
+            read += count(body, "\"betId\"");
+            Matcher next = NEXT_AFTER_ID.matcher(body);
+            if (!next.find()) {
+                return read;
+            }
+            afterId = "&afterId=" + next.group(1);
+        }
+    }
+
+    private long countLines(String path) throws IOException {
+        long lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = open(path)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private long countOccurrences(String path, String token) throws IOException {
+        try (InputStream in = open(path)) {
+            return count(new String(in.readAllBytes()), token);
+        }
+    }
+
+    private long count(String body, String token) {
+        long count = 0;
+        for (int i = body.indexOf(token); i >= 0; i = body.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private InputStream open(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setReadTimeout(0);
+        return connection.getInputStream();
+    }
+
+    @FunctionalInterface
+    private interface ReadAll {
+        long run() throws Exception;
+    }
+}
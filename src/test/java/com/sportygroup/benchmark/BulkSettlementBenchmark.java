@@ -0,0 +1,100 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.BetRepository;
+import com.sportygroup.service.BetService;
+import com.sportygroup.service.ExposureTracker;
+import com.sportygroup.service.OutcomeIdempotencyGuard;
+import com.sportygroup.service.OutcomeIndex;
+import com.sportygroup.service.UserBetsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Settlements per second of the set-based bulk settlement against the per-bet findById/save loop.
+ * Run with: mvn test -Pbenchmark -Dtest=BulkSettlementBenchmark [-Dbench.sizes=10000,100000,1000000]
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "logging.level.com.sportygroup=WARN")
+@Import({BetService.class, UserBetsCache.class, ExposureTracker.class, OutcomeIdempotencyGuard.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkSettlementBenchmark {
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void settlementsPerSecond() {
+        List<Integer> sizes = Arrays.stream(System.getProperty("bench.sizes", "10000,100000,1000000").split(","))
+            .map(String::trim)
+            .map(Integer::parseInt)
+            .toList();
+
+        System.out.printf("%-10s %18s %18s %10s%n", "bets", "loop settle/s", "bulk settle/s", "speedup");
+        for (int size : sizes) {
+            double loop = loopSettlementsPerSecond(size);
+            double bulk = bulkSettlementsPerSecond(size);
+            System.out.printf("%-10d %18.0f %18.0f %9.1fx%n", size, loop, bulk, bulk / loop);
+        }
+    }
+
+    private double loopSettlementsPerSecond(int size) {
+        String eventId = "loop-" + size;
+        seed(eventId, size);
+
+        long start = System.nanoTime();
+        List<Bet> pendingBets = betService.getPendingBetsForEvent(eventId);
+        for (Bet bet : pendingBets) {
+            BetStatus status = bet.getEventWinnerId().equals("team1") ? BetStatus.WON : BetStatus.LOST;
+            betService.updateBetStatus(bet.getBetId(), status);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(size, pendingBets.size());
+        cleanUp(eventId);
+        return size / (elapsed / 1_000_000_000.0);
+    }
+
+    private double bulkSettlementsPerSecond(int size) {
+        String eventId = "bulk-" + size;
+        seed(eventId, size);
+
+        long start = System.nanoTime();
+        List<Bet> settledBets = betService.settleEventBets(OutcomeIndex.of(new EventOutcome(eventId, "Benchmark", "team1")));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(size, settledBets.size());
+        cleanUp(eventId);
+        return size / (elapsed / 1_000_000_000.0);
+    }
+
+    private void seed(String eventId, int size) {
+        BetSeeder.seedPendingBets(jdbcTemplate, eventId, size);
+    }
+
+    private void cleanUp(String eventId) {
+        jdbcTemplate.update("DELETE FROM bets WHERE event_id = ?", eventId);
+        assertEquals(0, betRepository.findByEventIdAndStatus(eventId, BetStatus.PENDING).size());
+    }
+}
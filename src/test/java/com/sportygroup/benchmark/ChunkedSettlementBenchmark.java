@@ -0,0 +1,99 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import com.sportygroup.service.BetMatchingService;
+import com.sportygroup.service.BetSettlementService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Time to first published settlement, total duration and peak heap growth of whole-event settlement
+ * against chunked streaming settlement of one large event. Settlements reach the broker through the
+ * outbox relay, so the run ends when the outbox is drained.
+ * Run with: mvn test -Pbenchmark -Dtest=ChunkedSettlementBenchmark [-Dbench.bets=1000000] [-Dbench.chunk=5000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN"
+})
+class ChunkedSettlementBenchmark {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @SpyBean
+    private BetSettlementService betSettlementService;
+
+    @Autowired
+    private SettlementOutboxRepository settlementOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void timeToFirstSettlement() throws InterruptedException {
+        int bets = Integer.getInteger("bench.bets", 1_000_000);
+        ReflectionTestUtils.setField(betMatchingService, "chunkSize", Integer.getInteger("bench.chunk", 5000));
+
+        System.out.printf("%-10s %10s %18s %14s %16s%n", "mode", "bets", "first publish ms", "total ms", "peak heap MB");
+        run("whole", bets, false);
+        run("chunked", bets, true);
+    }
+
+    private void run(String mode, int bets, boolean streaming) throws InterruptedException {
+        String eventId = mode + "-event";
+        BetSeeder.seedPendingBets(jdbcTemplate, eventId, bets);
+        ReflectionTestUtils.setField(betMatchingService, "streamingEnabled", streaming);
+
+        AtomicLong firstPublish = new AtomicLong();
+        doAnswer(invocation -> {
+            firstPublish.compareAndSet(0, System.nanoTime());
+            return invocation.callRealMethod();
+        }).when(betSettlementService).sendBetSettlements(anyCollection());
+
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long start = System.nanoTime();
+        betMatchingService.processEventOutcome(new EventOutcome(eventId, "Benchmark", "team1"));
+        while (settlementOutboxRepository.count() > 0) {
+            Thread.sleep(10);
+        }
+        long end = System.nanoTime();
+        running.set(false);
+
+        System.out.printf("%-10s %10d %18.0f %14.0f %16d%n", mode, bets,
+            (firstPublish.get() - start) / 1_000_000.0, (end - start) / 1_000_000.0,
+            (peak.get() - baseline) / (1024 * 1024));
+    }
+}
@@ -0,0 +1,102 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.service.BetPlacementBuffer;
+import com.sportygroup.service.BetService;
+import com.sportygroup.service.ExposureTracker;
+import com.sportygroup.service.OutcomeIdempotencyGuard;
+import com.sportygroup.service.UserBetsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and latency of concurrent single bet placement with one insert and transaction per
+ * bet against group commit at several batch windows. Every client places its bets one after
+ * another, each waiting for its commit, like an HTTP caller of POST /api/bets.
+ * Run with: mvn test -Pbenchmark -Dtest=GroupCommitBenchmark [-Dbench.clients=64] [-Dbench.bets=500]
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "logging.level.com.sportygroup=WARN")
+@Import({BetService.class, UserBetsCache.class, ExposureTracker.class, OutcomeIdempotencyGuard.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupCommitBenchmark {
+
+    private static final int MAX_BATCH = 200;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void placementLatencyByWindow() throws Exception {
+        int clients = Integer.getInteger("bench.clients", 64);
+        int betsPerClient = Integer.getInteger("bench.bets", 500);
+
+        System.out.printf("%-14s %12s %10s %10s %10s%n", "mode", "bets/s", "p50 ms", "p99 ms", "max ms");
+        run("single", false, 0, clients, betsPerClient);
+        for (long windowMs : new long[] {1, 2, 5, 10, 20}) {
+            run("group " + windowMs + "ms", true, windowMs, clients, betsPerClient);
+        }
+        assertEquals(6L * clients * betsPerClient, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bets", Long.class));
+    }
+
+    private void run(String mode, boolean groupCommit, long windowMs, int clients, int betsPerClient) throws Exception {
+        BetPlacementBuffer buffer = new BetPlacementBuffer(betService, new ThreadFactories(false),
+            new SimpleMeterRegistry(), groupCommit, MAX_BATCH, windowMs, 10000, 30000);
+        long[] latencies = new long[clients * betsPerClient];
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            pool.submit(() -> {
+                for (int i = 0; i < betsPerClient; i++) {
+                    long placed = System.nanoTime();
+                    buffer.createBet(request(mode, client, i));
+                    latencies[client * betsPerClient + i] = System.nanoTime() - placed;
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        buffer.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %12.0f %10.2f %10.2f %10.2f%n", mode, latencies.length / seconds,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    private CreateBetRequest request(String mode, int client, int i) {
+        return CreateBetRequest.builder()
+            .userId("user" + client)
+            .eventId(mode + "-event" + (i % 100))
+            .eventMarketId("match-winner")
+            .eventWinnerId(i % 2 == 0 ? "team1" : "team2")
+            .betAmount(new BigDecimal("10.00"))
+            .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
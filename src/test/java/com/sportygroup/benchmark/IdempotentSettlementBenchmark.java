@@ -0,0 +1,131 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import com.sportygroup.service.BetMatchingService;
+import com.sportygroup.service.BetSettlementService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Cost of replayed outcome deliveries, and a stress test of concurrent deliveries of the same
+ * outcome in bulk and chunked mode: every bet must be settled and published exactly once.
+ * Run with: mvn test -Pbenchmark -Dtest=IdempotentSettlementBenchmark
+ *     [-Dbench.bets=20000] [-Dbench.replays=100000] [-Dbench.deliveries=8] [-Dbench.events=20]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN"
+})
+class IdempotentSettlementBenchmark {
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @SpyBean
+    private BetSettlementService betSettlementService;
+
+    @Autowired
+    private SettlementOutboxRepository settlementOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong published = new AtomicLong();
+
+    @Test
+    void replaysAndConcurrentDeliveries() throws Exception {
+        int bets = Integer.getInteger("bench.bets", 20000);
+        int replays = Integer.getInteger("bench.replays", 100000);
+        int deliveries = Integer.getInteger("bench.deliveries", 8);
+        int events = Integer.getInteger("bench.events", 20);
+        ReflectionTestUtils.setField(betMatchingService, "chunkSize", 1000);
+
+        doAnswer(invocation -> {
+            published.addAndGet(invocation.<Collection<?>>getArgument(0).size());
+            return invocation.callRealMethod();
+        }).when(betSettlementService).sendBetSettlements(anyCollection());
+
+        EventOutcome outcome = new EventOutcome("replay-event", "Benchmark", "team1");
+        BetSeeder.seedPendingBets(jdbcTemplate, outcome.getEventId(), bets);
+        long start = System.nanoTime();
+        betMatchingService.processEventOutcome(outcome);
+        double firstMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        start = System.nanoTime();
+        for (int i = 0; i < replays; i++) {
+            betMatchingService.processEventOutcome(outcome);
+        }
+        double replayMicros = (System.nanoTime() - start) / 1_000.0 / replays;
+
+        System.out.printf("%-28s %12.1f ms%n", "first delivery (" + bets + " bets)", firstMillis);
+        System.out.printf("%-28s %12.3f us%n", "replayed delivery", replayMicros);
+
+        System.out.printf("%-10s %8s %12s %12s %12s %10s%n", "mode", "events", "deliveries", "bets", "published", "ms");
+        concurrent("bulk", events, deliveries, bets / events, false);
+        concurrent("chunked", events, deliveries, bets / events, true);
+    }
+
+    private void concurrent(String mode, int events, int deliveries, int betsPerEvent, boolean streaming) throws Exception {
+        ReflectionTestUtils.setField(betMatchingService, "streamingEnabled", streaming);
+        for (int e = 0; e < events; e++) {
+            BetSeeder.seedPendingBets(jdbcTemplate, mode + "-event" + e, betsPerEvent);
+        }
+        awaitOutboxDrained();
+        published.set(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(deliveries);
+        long start = System.nanoTime();
+        try {
+            for (int e = 0; e < events; e++) {
+                EventOutcome outcome = new EventOutcome(mode + "-event" + e, "Benchmark", "team1");
+                CountDownLatch ready = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int d = 0; d < deliveries; d++) {
+                    futures.add(executor.submit(() -> {
+                        ready.await();
+                        betMatchingService.processEventOutcome(outcome);
+                        return null;
+                    }));
+                }
+                ready.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        awaitOutboxDrained();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        long expected = (long) events * betsPerEvent;
+        System.out.printf("%-10s %8d %12d %12d %12d %10.0f%n", mode, events, deliveries, expected, published.get(), millis);
+        assertEquals(expected, published.get(), mode + ": every bet must be published exactly once");
+    }
+
+    private void awaitOutboxDrained() throws InterruptedException {
+        while (settlementOutboxRepository.count() > 0) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Event outcome throughput of the per-record listener against the batch listener on an embedded broker.
+ * Both paths settle against the in-memory database, so each processed event costs a real transaction.
+ * Run with: mvn test -Pbenchmark -Dtest=KafkaBatchListenerBenchmark [-Dbench.records=20000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN",
+    "app.kafka.consumer.concurrency=3"
+})
+@EmbeddedKafka(kraft = false, partitions = 3, topics = "${app.kafka.topics.event-outcomes}")
+class KafkaBatchListenerBenchmark {
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private KafkaTemplate<String, EventOutcome> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Value("${app.kafka.topics.event-outcomes}")
+    private String topic;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Test
+    void outcomesPerSecond() throws Exception {
+        int records = Integer.getInteger("bench.records", 20000);
+        registry.getListenerContainers().forEach(MessageListenerContainer::stop);
+
+        double perRecord = run("eventOutcomeListener", records);
+        double batch = run("eventOutcomeBatchListener", records);
+
+        System.out.printf("%-12s %20s %20s %10s%n", "records", "per-record rec/s", "batch rec/s", "speedup");
+        System.out.printf("%-12d %20.0f %20.0f %9.1fx%n", records, perRecord, batch, batch / perRecord);
+    }
+
+    private double run(String listenerId, int records) throws Exception {
+        // Every event appears twice so the batch path has duplicates to collapse
+        for (int i = 0; i < records; i++) {
+            String eventId = listenerId + "-" + (i / 2);
+            kafkaTemplate.send(topic, eventId, new EventOutcome(eventId, "Event " + i, "team1"));
+        }
+        kafkaTemplate.flush();
+
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        long start = System.nanoTime();
+        container.start();
+        awaitNoLag();
+        long elapsed = System.nanoTime() - start;
+        container.stop();
+
+        return records / (elapsed / 1_000_000_000.0);
+    }
+
+    private void awaitNoLag() throws Exception {
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            while (true) {
+                Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get();
+                Map<TopicPartition, OffsetSpec> latest = committed.keySet().stream()
+                    .collect(Collectors.toMap(Function.identity(), tp -> OffsetSpec.latest()));
+                long lag = committed.isEmpty() ? 1 : admin.listOffsets(latest).all().get().entrySet().stream()
+                    .mapToLong(e -> e.getValue().offset() - committed.get(e.getKey()).offset())
+                    .sum();
+                if (lag == 0 && committed.size() == broker.getPartitionsPerTopic()) {
+                    return;
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.sportygroup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.dto.EventOutcomeRequest;
+import com.sportygroup.dto.EventOutcomesRequest;
+import com.sportygroup.model.EventOutcome;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Outcome publishing throughput of POST /api/events/outcomes (one record per request) against
+ * POST /api/events/outcomes/batch on an embedded broker, measured until every record is acknowledged.
+ * Listeners are stopped, so only the producer side is measured. Pass the producer settings to compare
+ * profiles, e.g. the client defaults:
+ * mvn test -Pbenchmark -Dtest=OutcomePublishBenchmark -Dapp.kafka.producer.linger-ms=0
+ *   -Dapp.kafka.producer.batch-size=16384 -Dapp.kafka.producer.compression-type=none [-Dbench.records=20000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN"
+})
+@AutoConfigureMockMvc
+@EmbeddedKafka(kraft = false, partitions = 3, topics = "${app.kafka.topics.event-outcomes}")
+class OutcomePublishBenchmark {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private KafkaTemplate<String, EventOutcome> kafkaTemplate;
+
+    @Value("${app.kafka.producer.linger-ms}")
+    private int lingerMs;
+
+    @Value("${app.kafka.producer.batch-size}")
+    private int batchSize;
+
+    @Value("${app.kafka.producer.compression-type}")
+    private String compressionType;
+
+    @Test
+    void outcomesPerSecond() throws Exception {
+        int records = Integer.getInteger("bench.records", 20000);
+        int perRequest = Integer.getInteger("bench.batch", 500);
+        registry.getListenerContainers().forEach(MessageListenerContainer::stop);
+
+        List<String> singleBodies = new ArrayList<>();
+        List<EventOutcomeRequest> outcomes = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            EventOutcomeRequest outcome = EventOutcomeRequest.builder()
+                .eventId("event-" + i)
+                .eventName("Event " + i)
+                .eventWinnerId("team1")
+                .build();
+            singleBodies.add(objectMapper.writeValueAsString(outcome));
+            outcomes.add(outcome);
+        }
+        List<String> batchBodies = new ArrayList<>();
+        for (int from = 0; from < records; from += perRequest) {
+            List<EventOutcomeRequest> chunk = outcomes.subList(from, Math.min(from + perRequest, records));
+            batchBodies.add(objectMapper.writeValueAsString(new EventOutcomesRequest(chunk)));
+        }
+
+        // Warm up both paths before measuring
+        single(singleBodies.subList(0, Math.min(1000, records)));
+        batch(batchBodies.subList(0, 2));
+
+        double single = records / single(singleBodies);
+        double batch = records / batch(batchBodies);
+
+        System.out.printf("producer: linger.ms=%d batch.size=%d compression=%s%n", lingerMs, batchSize, compressionType);
+        System.out.printf("%-12s %20s %20s %10s%n", "records", "single rec/s", "batch rec/s", "speedup");
+        System.out.printf("%-12d %20.0f %20.0f %9.1fx%n", records, single, batch, batch / single);
+    }
+
+    /**
+     * Seconds to post each outcome on its own, up to the broker acknowledging the last one
+     */
+    private double single(List<String> bodies) throws Exception {
+        long start = System.nanoTime();
+        for (String body : bodies) {
+            mockMvc.perform(post("/api/events/outcomes").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        }
+        kafkaTemplate.flush();
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    /**
+     * Seconds to post the outcomes in batches, each awaited until all its records are acknowledged
+     */
+    private double batch(List<String> bodies) throws Exception {
+        long start = System.nanoTime();
+        for (String body : bodies) {
+            MvcResult result = mockMvc.perform(post("/api/events/outcomes/batch")
+                    .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.BetMatchingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Time to settle one large event and enqueue its settlements, as one bulk transaction and split into
+ * bet ID ranges settled in parallel by 1 to N threads. The outbox relay is held back during the runs,
+ * so only settlement is measured; compare the curve with the number of cores available.
+ * Run with: mvn test -Pbenchmark -Dtest=RangeSettlementBenchmark [-Dbench.bets=1000000]
+ *   [-Dbench.parallelism=1,2,4,8] [-Dbench.range-size=50000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN",
+    "app.settlement.ranges.enabled=true",
+    "app.settlement.outbox.poll-interval-ms=3600000"
+})
+class RangeSettlementBenchmark {
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void scalingCurve() {
+        int bets = Integer.getInteger("bench.bets", 1_000_000);
+        List<Integer> parallelism = Arrays.stream(System.getProperty("bench.parallelism", "1,2,4,8").split(","))
+            .map(String::trim)
+            .map(Integer::parseInt)
+            .toList();
+        ReflectionTestUtils.setField(betMatchingService, "rangeSize", Long.getLong("bench.range-size", 50_000L));
+
+        System.out.printf("cores: %d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %10s %12s %14s %10s%n", "mode", "bets", "threads", "settle/s", "speedup");
+        ReflectionTestUtils.setField(betMatchingService, "rangeThreshold", Long.MAX_VALUE);
+        double bulk = run("bulk", bets);
+        System.out.printf("%-10s %10d %12s %14.0f %9.2fx%n", "bulk", bets, "-", bulk, 1.0);
+
+        ReflectionTestUtils.setField(betMatchingService, "rangeThreshold", 0L);
+        for (int threads : parallelism) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            ReflectionTestUtils.setField(betMatchingService, "rangePool", pool);
+            ReflectionTestUtils.setField(betMatchingService, "rangeParallelism", threads);
+            double ranges = run("ranges-" + threads, bets);
+            pool.shutdown();
+            System.out.printf("%-10s %10d %12d %14.0f %9.2fx%n", "ranges", bets, threads, ranges, ranges / bulk);
+        }
+    }
+
+    private double run(String eventId, int bets) {
+        jdbcTemplate.update("DELETE FROM settlement_outbox");
+        jdbcTemplate.update("DELETE FROM bets");
+        BetSeeder.seedPendingBets(jdbcTemplate, eventId, bets);
+        System.gc();
+
+        long start = System.nanoTime();
+        betMatchingService.processEventOutcome(new EventOutcome(eventId, "Benchmark", "team1"));
+        long elapsed = System.nanoTime() - start;
+
+        long pending = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bets WHERE event_id = ? AND status = 'PENDING'", Long.class, eventId);
+        if (pending > 0) {
+            throw new IllegalStateException(pending + " bets of " + eventId + " were left pending");
+        }
+        return bets / (elapsed / 1_000_000_000.0);
+    }
+}
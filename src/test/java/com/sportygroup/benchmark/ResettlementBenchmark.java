@@ -0,0 +1,75 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.dto.ResettlementReport;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.ResettlementService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of settlement replay over events whose bets are already settled. Every 100th winning
+ * bet is seeded as LOST, so a replay against the winners implied by the won bets changes exactly
+ * those; a second run against corrected outcomes with the other selection winning changes every bet.
+ * Run with: mvn test -Pbenchmark -Dtest=ResettlementBenchmark [-Dbench.events=20] [-Dbench.bets=50000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN",
+    "app.resettlement.parallelism=4",
+    "app.resettlement.max-bets-per-second=0"
+})
+class ResettlementBenchmark {
+
+    @Autowired
+    private ResettlementService resettlementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void betsPerSecond() throws InterruptedException {
+        int events = Integer.getInteger("bench.events", 20);
+        int bets = Integer.getInteger("bench.bets", 50_000);
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        List<String> eventIds = new ArrayList<>(events);
+        for (int e = 0; e < events; e++) {
+            eventIds.add("replay-event-" + e);
+            BetSeeder.seedSettledBets(jdbcTemplate, eventIds.get(e), bets);
+        }
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+
+        System.out.printf("%-10s %8s %12s %12s %12s %10s %12s%n",
+            "run", "events", "scanned", "changed", "republished", "ms", "bets/s");
+        ResettlementReport inferred = run(resettlementService.start("inferred", null, from, to, List.of(), false));
+        assertEquals((long) events * (bets / 200), inferred.getBetsChanged());
+
+        List<EventOutcome> corrected = eventIds.stream()
+            .map(eventId -> new EventOutcome(eventId, "Benchmark", "team2"))
+            .toList();
+        ResettlementReport correction = run(resettlementService.start("corrected", null, null, null, corrected, false));
+        assertEquals((long) events * bets, correction.getBetsChanged());
+    }
+
+    private ResettlementReport run(ResettlementReport started) throws InterruptedException {
+        ResettlementReport report = started;
+        while (report.getStatus() == ResettlementReport.Status.RUNNING) {
+            Thread.sleep(50);
+            report = resettlementService.getReport(started.getRunId()).orElseThrow();
+        }
+        assertEquals(ResettlementReport.Status.COMPLETED, report.getStatus());
+        System.out.printf("%-10s %8d %12d %12d %12d %10d %12.0f%n", report.getRunId(), report.getEvents(),
+            report.getBetsScanned(), report.getBetsChanged(), report.getSettlementsRepublished(),
+            report.getElapsedMillis(), report.getBetsPerSecond());
+        return report;
+    }
+}
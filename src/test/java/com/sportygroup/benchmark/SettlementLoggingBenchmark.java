@@ -0,0 +1,154 @@
+package com.sportygroup.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.service.BetSettlementService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Process CPU time and log volume of processing 100k bet settlements in mock RocketMQ mode, as the
+ * outbox relay does in groups of 1000, with one INFO line per bet (trace-every=1) against per-event
+ * summary lines with sampled per-bet tracing, written synchronously or through an async appender.
+ * Log lines go to a file, so formatting and I/O are measured but not console rendering.
+ * Run with: mvn test -Pbenchmark -Dtest=SettlementLoggingBenchmark [-Dbench.settlements=100000]
+ */
+@Tag("benchmark")
+class SettlementLoggingBenchmark {
+
+    private static final int GROUP_SIZE = 1000;
+    private static final int BETS_PER_EVENT = 200;
+
+    @TempDir
+    Path logDir;
+
+    @Test
+    void cpuPerSettlements() throws Exception {
+        int count = Integer.getInteger("bench.settlements", 100_000);
+        List<List<BetSettlement>> groups = settlements(count);
+
+        // Warm up the code paths once before measuring
+        run("warm-up", 1, false, groups);
+
+        System.out.printf("%-30s %16s %12s %12s%n", "mode", "cpu ms / 100k", "log lines", "log KiB");
+        run("per-bet INFO, sync", 1, false, groups);
+        run("per-bet INFO, async", 1, true, groups);
+        run("per-event, 1/10000 traced, sync", 10_000, false, groups);
+        run("per-event, 1/10000 traced, async", 10_000, true, groups);
+    }
+
+    private void run(String mode, int traceEvery, boolean async, List<List<BetSettlement>> groups) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        BetSettlementService service = new BetSettlementService(objectMapper, null);
+        ReflectionTestUtils.setField(service, "mockRocketMQ", true);
+        ReflectionTestUtils.setField(service, "betSettlementsTopic", "bet-settlements");
+        ReflectionTestUtils.setField(service, "traceEvery", traceEvery);
+
+        Path file = logDir.resolve(mode.replaceAll("\\W+", "-") + ".log");
+        Appender<ILoggingEvent> appender = attachAppender(file, async);
+        long settlements = groups.stream().mapToLong(List::size).sum();
+
+        long cpuBefore = processCpuNanos();
+        groups.forEach(service::sendBetSettlements);
+        // Stopping an async appender drains its queue, so the writer thread's work is counted too
+        appender.stop();
+        long cpuNanos = processCpuNanos() - cpuBefore;
+        detachAppender(appender);
+
+        long lines;
+        try (var stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        assertTrue(lines > 0);
+        if (!mode.equals("warm-up")) {
+            System.out.printf("%-30s %16.0f %12d %12d%n", mode, cpuNanos / 1e6 * 100_000 / settlements,
+                lines, Files.size(file) / 1024);
+        }
+    }
+
+    private Appender<ILoggingEvent> attachAppender(Path file, boolean async) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(0);
+            asyncAppender.setMaxFlushTime(60_000);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger logger = context.getLogger(BetSettlementService.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return appender;
+    }
+
+    private void detachAppender(Appender<ILoggingEvent> appender) {
+        Logger logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(BetSettlementService.class);
+        logger.detachAppender(appender);
+        if (appender instanceof AsyncAppender asyncAppender) {
+            asyncAppender.iteratorForAppenders().forEachRemaining(Appender::stop);
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private List<List<BetSettlement>> settlements(int count) {
+        List<List<BetSettlement>> groups = new ArrayList<>();
+        LocalDateTime settledAt = LocalDateTime.now();
+        List<BetSettlement> group = new ArrayList<>(GROUP_SIZE);
+        for (long betId = 1; betId <= count; betId++) {
+            boolean won = betId % 2 == 0;
+            group.add(new BetSettlement(betId, "user" + (betId % 1000), won ? BetStatus.WON : BetStatus.LOST,
+                won ? 1850 : 0, settledAt, "event" + (betId / BETS_PER_EVENT)));
+            if (group.size() == GROUP_SIZE) {
+                groups.add(group);
+                group = new ArrayList<>(GROUP_SIZE);
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+}
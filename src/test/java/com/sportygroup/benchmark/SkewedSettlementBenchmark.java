@@ -0,0 +1,111 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.BetMatchingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Settlement of a skewed event mix on one partition: one large event followed by many small ones.
+ * On the listener thread every small event waits for the large one; on the sharded settlement
+ * executor the small events settle alongside it, except those that share the large event's shard.
+ * Reports the median time for a small event to settle, how many settled before the large event and
+ * when the large event settled, measured from the start of consumption.
+ * Run with: mvn test -Pbenchmark -Dtest=SkewedSettlementBenchmark [-Dbench.large=200000]
+ *   [-Dbench.small=200] [-Dbench.small-bets=20]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN",
+    "app.kafka.consumer.concurrency=1",
+    "app.settlement.executor.shards=4"
+})
+@EmbeddedKafka(kraft = false, partitions = 1, topics = "${app.kafka.topics.event-outcomes}")
+class SkewedSettlementBenchmark {
+
+    @SpyBean
+    private BetMatchingService betMatchingService;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private KafkaTemplate<String, EventOutcome> kafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.kafka.topics.event-outcomes}")
+    private String topic;
+
+    @Test
+    void smallEventsBehindLargeOne() throws Exception {
+        int large = Integer.getInteger("bench.large", 200_000);
+        int small = Integer.getInteger("bench.small", 200);
+        int smallBets = Integer.getInteger("bench.small-bets", 20);
+        registry.getListenerContainers().forEach(MessageListenerContainer::stop);
+
+        Map<String, Long> settledAt = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            settledAt.put(invocation.<EventOutcome>getArgument(0).getEventId(), System.nanoTime());
+            return null;
+        }).when(betMatchingService).processEventOutcome(any());
+
+        System.out.printf("%-10s %12s %14s %16s %20s %16s%n",
+            "mode", "large bets", "small events", "small p50 ms", "small before large", "large done ms");
+        run("listener", "eventOutcomeListener", large, small, smallBets, settledAt);
+        run("executor", "eventOutcomeParallelListener", large, small, smallBets, settledAt);
+    }
+
+    private void run(String mode, String listenerId, int large, int small, int smallBets,
+                     Map<String, Long> settledAt) throws Exception {
+        String largeEvent = mode + "-large";
+        BetSeeder.seedPendingBets(jdbcTemplate, largeEvent, large);
+        for (int i = 0; i < small; i++) {
+            BetSeeder.seedPendingBets(jdbcTemplate, mode + "-small-" + i, smallBets);
+        }
+
+        kafkaTemplate.send(topic, largeEvent, new EventOutcome(largeEvent, "Large event", "team1"));
+        for (int i = 0; i < small; i++) {
+            String eventId = mode + "-small-" + i;
+            kafkaTemplate.send(topic, eventId, new EventOutcome(eventId, "Small event " + i, "team1"));
+        }
+        kafkaTemplate.flush();
+
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        long start = System.nanoTime();
+        container.start();
+        while (settledAt.keySet().stream().filter(eventId -> eventId.startsWith(mode)).count() < small + 1) {
+            Thread.sleep(50);
+        }
+        container.stop();
+
+        long largeDone = (settledAt.get(largeEvent) - start) / 1_000_000;
+        List<Long> smallDone = settledAt.entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith(mode + "-small-"))
+            .map(entry -> (entry.getValue() - start) / 1_000_000)
+            .sorted()
+            .toList();
+        System.out.printf("%-10s %12d %14d %16d %20d %16d%n", mode, large, small, smallDone.get(small / 2),
+            smallDone.stream().filter(done -> done < largeDone).count(), largeDone);
+    }
+}
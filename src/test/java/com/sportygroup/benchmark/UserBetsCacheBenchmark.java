@@ -0,0 +1,152 @@
+package com.sportygroup.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.model.Bet;
+import com.sportygroup.service.BetService;
+import com.sportygroup.service.ExposureTracker;
+import com.sportygroup.service.OutcomeIdempotencyGuard;
+import com.sportygroup.service.UserBetsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Database queries behind GET /api/bets/user/{userId} with and without the per-user cache, while
+ * clients poll random users' bet lists and one writer keeps placing bets, each of which drops its
+ * user's entry. Also shows concurrent misses on one cold user being served by a single load.
+ * Run with: mvn test -Pbenchmark -Dtest=UserBetsCacheBenchmark [-Dbench.users=1000] [-Dbench.seconds=10]
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = {
+    "logging.level.com.sportygroup=WARN",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import({BetService.class, UserBetsCache.class, ExposureTracker.class, OutcomeIdempotencyGuard.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserBetsCacheBenchmark {
+
+    private static final int READERS = 32;
+    private static final int BETS_PER_USER = 10;
+    private static final int WRITES_PER_SECOND = Integer.getInteger("bench.writes", 200);
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private UserBetsCache userBetsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void databaseQueriesPerSecond() throws Exception {
+        int users = Integer.getInteger("bench.users", 1000);
+        int seconds = Integer.getInteger("bench.seconds", 10);
+        List<CreateBetRequest> seed = new ArrayList<>(users * BETS_PER_USER);
+        for (int i = 0; i < users * BETS_PER_USER; i++) {
+            seed.add(request(i % users));
+        }
+        betService.createBets(seed);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%-10s %12s %16s %22s %10s%n", "mode", "reads/s", "db queries/s", "db queries / 1k reads", "hit rate");
+        run("uncached", false, users, seconds, statistics);
+        run("cached", true, users, seconds, statistics);
+
+        // Concurrent misses on one cold user
+        ReflectionTestUtils.setField(userBetsCache, "enabled", true);
+        userBetsCache.invalidate(List.of("user0"));
+        statistics.clear();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        for (int r = 0; r < READERS; r++) {
+            pool.submit(() -> {
+                start.await();
+                return betService.getBetsByUserId("user0");
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        System.out.printf("%d concurrent misses on one user: %d db queries%n", READERS, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    private void run(String mode, boolean cached, int users, int seconds, Statistics statistics) throws Exception {
+        ReflectionTestUtils.setField(userBetsCache, "enabled", cached);
+        long hitsBefore = cacheStat(true);
+        long missesBefore = cacheStat(false);
+        AtomicLong reads = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        statistics.clear();
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + 1);
+        for (int r = 0; r < READERS; r++) {
+            pool.submit(() -> {
+                while (System.nanoTime() < end) {
+                    List<Bet> bets = betService.getBetsByUserId("user" + ThreadLocalRandom.current().nextInt(users));
+                    assertTrue(bets.size() >= BETS_PER_USER);
+                    reads.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        pool.submit(() -> {
+            long pauseNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, WRITES_PER_SECOND);
+            while (System.nanoTime() < end) {
+                betService.createBet(request(ThreadLocalRandom.current().nextInt(users)));
+                TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            }
+            return null;
+        });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS));
+
+        long hits = cacheStat(true) - hitsBefore;
+        long misses = cacheStat(false) - missesBefore;
+        long queries = statistics.getQueryExecutionCount();
+        System.out.printf("%-10s %12.0f %16.0f %22.2f %9.2f%%%n", mode, reads.get() / (double) seconds,
+            queries / (double) seconds, 1000.0 * queries / reads.get(), hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses));
+    }
+
+    private long cacheStat(boolean hits) {
+        CacheStats stats = ((Cache<?, ?>) ReflectionTestUtils.getField(userBetsCache, "cache")).stats();
+        return hits ? stats.hitCount() : stats.missCount();
+    }
+
+    private CreateBetRequest request(int user) {
+        return CreateBetRequest.builder()
+            .userId("user" + user)
+            .eventId("event" + ThreadLocalRandom.current().nextInt(100))
+            .eventMarketId("match-winner")
+            .eventWinnerId("team1")
+            .betAmount(new BigDecimal("10.00"))
+            .build();
+    }
+}
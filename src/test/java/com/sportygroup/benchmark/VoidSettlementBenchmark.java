@@ -0,0 +1,123 @@
+package com.sportygroup.benchmark;
+
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import com.sportygroup.service.BetMatchingService;
+import com.sportygroup.service.BetSettlementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Time to void the pending bets of one cancelled event and to publish their refunds, with the
+ * set-based void (one UPDATE for the event) against chunked streaming settlement (one versioned
+ * UPDATE per bet), plus a market-level void alongside a result for the other market. "update ms" is
+ * the time in the set-based UPDATE statements alone; "void ms" adds reading the bets back and writing
+ * their refunds to the outbox. Refunds reach the broker through the outbox relay and the batched
+ * publisher, so a run ends when the outbox is drained.
+ * Run with: mvn test -Pbenchmark -Dtest=VoidSettlementBenchmark [-Dbench.bets=500000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.sportygroup=WARN"
+})
+class VoidSettlementBenchmark {
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @SpyBean
+    private BetSettlementService betSettlementService;
+
+    @Autowired
+    private SettlementOutboxRepository settlementOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong refunds = new AtomicLong();
+    private final AtomicLong refundCents = new AtomicLong();
+
+    @Test
+    void voidLargeEvent() throws InterruptedException {
+        int bets = Integer.getInteger("bench.bets", 500_000);
+        doAnswer(invocation -> {
+            Collection<BetSettlement> settlements = invocation.getArgument(0);
+            for (BetSettlement settlement : settlements) {
+                if (settlement.settlementStatus() == BetStatus.VOID) {
+                    refunds.incrementAndGet();
+                    refundCents.addAndGet(settlement.payoutCents());
+                }
+            }
+            return invocation.callRealMethod();
+        }).when(betSettlementService).sendBetSettlements(anyCollection());
+
+        // Warm up both paths once before measuring
+        run("warm-up-bulk", 10_000);
+        run("warm-up-chunked", 10_000);
+
+        System.out.printf("%-14s %10s %10s %10s %10s %14s %14s%n",
+            "mode", "bets", "voided", "update ms", "void ms", "published ms", "voided/s");
+        for (String mode : new String[] {"bulk", "chunked", "bulk-market"}) {
+            run(mode, bets);
+        }
+    }
+
+    private void run(String mode, int bets) throws InterruptedException {
+        refunds.set(0);
+        refundCents.set(0);
+        String eventId = mode + "-event";
+        BetSeeder.seedTwoMarketBets(jdbcTemplate, eventId, bets);
+        ReflectionTestUtils.setField(betMatchingService, "streamingEnabled", mode.endsWith("chunked"));
+        EventOutcome outcome = mode.equals("bulk-market")
+            ? new EventOutcome(eventId, "Benchmark", "team1", null, null, false, Set.of("over-under"))
+            : new EventOutcome(eventId, "Benchmark", null, null, null, true, null);
+
+        double updateBefore = updateMillis();
+        long start = System.nanoTime();
+        betMatchingService.processEventOutcome(outcome);
+        long voided = System.nanoTime();
+        while (settlementOutboxRepository.count() > 0) {
+            Thread.sleep(10);
+        }
+        long published = System.nanoTime();
+
+        long expected = mode.equals("bulk-market") ? bets / 2 : bets;
+        assertEquals(expected, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bets WHERE event_id = ? AND status = 'VOID'", Long.class, eventId));
+        assertEquals(expected, refunds.get());
+        // Every bet is staked 10.00
+        assertEquals(expected * 1000, refundCents.get());
+        if (!mode.startsWith("warm-up")) {
+            String update = mode.endsWith("chunked") ? "-" : String.format("%.0f", updateMillis() - updateBefore);
+            System.out.printf("%-14s %10d %10d %10s %10.0f %14.0f %14.0f%n", mode, bets, expected, update,
+                (voided - start) / 1e6, (published - start) / 1e6, expected * 1e9 / (voided - start));
+        }
+    }
+
+    private double updateMillis() {
+        Timer timer = meterRegistry.find("settlement.pending.query").tag("query", "settle").timer();
+        return timer == null ? 0 : timer.totalTime(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,104 @@
+package com.sportygroup.codec;
+
+import com.sportygroup.config.AppConfig;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JSON and Avro messages round-trip, and readers accept both formats as well as JSON written
+ * without the wire-format header
+ */
+class WireFormatTest {
+
+    private static final String TOPIC = "event-outcomes";
+
+    private final EventOutcome outcome = new EventOutcome("event001", "Team A vs Team B", "team1",
+        Map.of("match-winner", "team1", "over-under", "over"), 2L);
+
+    @Test
+    void eventOutcomeRoundTripsInEitherFormat() {
+        EventOutcomeDeserializer deserializer = deserializer();
+        for (String format : new String[] {"json", "avro"}) {
+            EventOutcomeSerializer serializer = new EventOutcomeSerializer();
+            serializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+                EventOutcomeSerializer.WIRE_FORMAT_CONFIG + "." + TOPIC, format), false);
+            RecordHeaders headers = new RecordHeaders();
+
+            byte[] body = serializer.serialize(TOPIC, headers, outcome);
+
+            assertEquals(format + "/1", new String(headers.lastHeader(WireFormat.HEADER).value(), StandardCharsets.UTF_8));
+            assertOutcome(deserializer.deserialize(TOPIC, headers, body));
+        }
+    }
+
+    @Test
+    void eventOutcomeWithoutHeaderIsReadAsJson() {
+        byte[] body = ("{\"eventId\":\"event001\",\"eventName\":\"Team A vs Team B\",\"eventWinnerId\":\"team1\"," +
+            "\"marketResults\":{\"match-winner\":\"team1\",\"over-under\":\"over\"},\"outcomeVersion\":2}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        assertOutcome(deserializer().deserialize(TOPIC, new RecordHeaders(), body));
+    }
+
+    @Test
+    void voidingOutcomeIsWrittenAsJsonOnAvroTopic() {
+        EventOutcome cancelled = new EventOutcome("event001", "Team A vs Team B", null, null, 2L, true, Set.of("over-under"));
+        EventOutcomeSerializer serializer = new EventOutcomeSerializer();
+        serializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+            EventOutcomeSerializer.WIRE_FORMAT_CONFIG + "." + TOPIC, "avro"), false);
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] body = serializer.serialize(TOPIC, headers, cancelled);
+        EventOutcome decoded = deserializer().deserialize(TOPIC, headers, body);
+
+        assertEquals("json/1", new String(headers.lastHeader(WireFormat.HEADER).value(), StandardCharsets.UTF_8));
+        assertTrue(decoded.isCancelled());
+        assertEquals(Set.of("over-under"), decoded.getVoidedMarkets());
+    }
+
+    @Test
+    void newerAvroSchemaVersionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.fromHeader("avro/2"));
+    }
+
+    @Test
+    void betSettlementRoundTripsInEitherFormat() throws Exception {
+        BetSettlement settlement = new BetSettlement(42L, "user123", BetStatus.WON, 18507,
+            LocalDateTime.of(2024, 1, 1, 12, 0, 1, 123_456_000), "event001");
+        for (String format : new String[] {"json", "avro"}) {
+            BetSettlementMessageCodec codec = new BetSettlementMessageCodec(new AppConfig().objectMapper(), format);
+            BetSettlement decoded = codec.decode(codec.encode(settlement), codec.headerValue());
+
+            assertEquals(settlement, decoded);
+        }
+    }
+
+    private static EventOutcomeDeserializer deserializer() {
+        EventOutcomeDeserializer deserializer = new EventOutcomeDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.VALUE_DEFAULT_TYPE, EventOutcome.class.getName()), false);
+        return deserializer;
+    }
+
+    private static void assertOutcome(EventOutcome decoded) {
+        assertEquals("event001", decoded.getEventId());
+        assertEquals("Team A vs Team B", decoded.getEventName());
+        assertEquals("team1", decoded.getEventWinnerId());
+        assertEquals(Map.of("match-winner", "team1", "over-under", "over"), decoded.getMarketResults());
+        assertEquals(2L, decoded.getOutcomeVersion());
+    }
+}
@@ -0,0 +1,29 @@
+package com.sportygroup.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Names of the threads created by each named factory
+ */
+class ThreadFactoriesTest {
+
+    @Test
+    void platformThreadsAreNumberedPerFactory() {
+        ThreadFactories threadFactories = new ThreadFactories(false);
+        ThreadFactory relay = threadFactories.named("outbox-relay");
+        ThreadFactory range = threadFactories.named("settlement-range");
+
+        Thread first = relay.newThread(() -> { });
+        Thread second = relay.newThread(() -> { });
+
+        assertEquals("outbox-relay-0", first.getName());
+        assertEquals("outbox-relay-1", second.getName());
+        assertEquals("settlement-range-0", range.newThread(() -> { }).getName());
+        assertTrue(first.isDaemon());
+    }
+}
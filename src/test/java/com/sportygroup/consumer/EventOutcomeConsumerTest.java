@@ -0,0 +1,237 @@
+package com.sportygroup.consumer;
+
+import com.sportygroup.codec.EventOutcomeDeserializer;
+import com.sportygroup.codec.WireFormat;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.service.BetMatchingService;
+import com.sportygroup.service.SettlementExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Event outcome listeners, driven without a broker
+ */
+class EventOutcomeConsumerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("event-outcomes", 0);
+
+    private final BetMatchingService betMatchingService = mock(BetMatchingService.class);
+    private final SettlementExecutor settlementExecutor = mock(SettlementExecutor.class);
+    private final KafkaListenerEndpointRegistry listenerRegistry = mock(KafkaListenerEndpointRegistry.class);
+    private final MessageListenerContainer parallelContainer = mock(MessageListenerContainer.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SettlementExecutor> settlementExecutors = mock(ObjectProvider.class);
+    private final EventOutcomeConsumer consumer = new EventOutcomeConsumer(betMatchingService, new SimpleMeterRegistry(),
+        settlementExecutors, new PendingOffsets(), listenerRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(settlementExecutors.getObject()).thenReturn(settlementExecutor);
+    }
+
+    @Test
+    void batchSettlesRecordsBeforeAnUndecodableOneAndReportsIt() {
+        ConsumerRecord<String, EventOutcome> first = record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null);
+        ConsumerRecord<String, EventOutcome> poison = record(1, "{}", "avro/99");
+        ConsumerRecord<String, EventOutcome> last = record(2, "{\"eventId\":\"event2\",\"eventWinnerId\":\"team1\"}", null);
+        assertNull(poison.value());
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.consumeEventOutcomes(List.of(first, poison, last)));
+
+        assertSame(poison, failure.getRecord());
+        assertInstanceOf(DeserializationException.class, failure.getCause());
+        verify(betMatchingService).processEventOutcomes(argThat(outcomes -> List.copyOf(outcomes).equals(List.of(first.value()))));
+    }
+
+    @Test
+    void undecodableRecordIsRecoveredWithoutRetriesDespiteUnlimitedBackOff() {
+        ConsumerRecord<String, EventOutcome> first = record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null);
+        ConsumerRecord<String, EventOutcome> poison = record(1, "{}", "avro/99");
+        ConsumerRecord<String, EventOutcome> last = record(2, "{\"eventId\":\"event2\",\"eventWinnerId\":\"team1\"}", null);
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> consumer.consumeEventOutcomes(List.of(first, poison, last)));
+        ConsumerRecordRecoverer recoverer = mock(ConsumerRecordRecoverer.class);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer,
+            new FixedBackOff(1000, FixedBackOff.UNLIMITED_ATTEMPTS));
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties(PARTITION.topic()));
+        when(container.isRunning()).thenReturn(true);
+
+        // Thrown once the rest of the batch has been seeked back, for the container to log
+        assertThrows(KafkaException.class, () -> errorHandler.handleBatch(failure,
+            new ConsumerRecords<>(Map.of(PARTITION, List.of(first, poison, last))), kafkaConsumer, container, () -> { }));
+
+        verify(recoverer, times(1)).accept(eq(poison), any());
+        verify(kafkaConsumer).commitSync(eq(Map.of(PARTITION, new OffsetAndMetadata(2))), any());
+        verify(kafkaConsumer).seek(PARTITION, 2);
+    }
+
+    @Test
+    void parallelListenerPausesOnceTheExecutorIsSaturated() throws InterruptedException {
+        when(listenerRegistry.getListenerContainer("eventOutcomeParallelListener")).thenReturn(parallelContainer);
+        when(settlementExecutor.isSaturated()).thenReturn(false, true);
+
+        consumer.consumeEventOutcomeInParallel(record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null),
+            mock(Consumer.class));
+        verify(parallelContainer, never()).pause();
+
+        consumer.consumeEventOutcomeInParallel(record(1, "{\"eventId\":\"event2\",\"eventWinnerId\":\"team1\"}", null),
+            mock(Consumer.class));
+        verify(settlementExecutor).execute(eq("event1"), any());
+        verify(settlementExecutor).execute(eq("event2"), any());
+        verify(parallelContainer).pause();
+    }
+
+    @Test
+    void saturatedExecutorDoesNotPauseAnAlreadyPausedListener() throws InterruptedException {
+        when(listenerRegistry.getListenerContainer("eventOutcomeParallelListener")).thenReturn(parallelContainer);
+        when(settlementExecutor.isSaturated()).thenReturn(true);
+        when(parallelContainer.isPauseRequested()).thenReturn(true);
+
+        consumer.consumeEventOutcomeInParallel(record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null),
+            mock(Consumer.class));
+
+        verify(parallelContainer, never()).pause();
+    }
+
+    @Test
+    void idlePausedListenerResumesOnlyOnceTheExecutorHasDrained() {
+        when(listenerRegistry.getListenerContainer("eventOutcomeParallelListener")).thenReturn(parallelContainer);
+        when(parallelContainer.isPauseRequested()).thenReturn(true);
+        when(settlementExecutor.isDrained()).thenReturn(false, true);
+
+        consumer.onParallelListenerIdle(idleEvent());
+        verify(parallelContainer, never()).resume();
+
+        consumer.onParallelListenerIdle(idleEvent());
+        verify(parallelContainer).resume();
+    }
+
+    @Test
+    void idleRunningListenerIsNotResumed() {
+        when(listenerRegistry.getListenerContainer("eventOutcomeParallelListener")).thenReturn(parallelContainer);
+        when(settlementExecutor.isDrained()).thenReturn(true);
+
+        consumer.onParallelListenerIdle(idleEvent());
+
+        verify(parallelContainer, never()).resume();
+    }
+
+    @Test
+    void failedParallelSettlementIsRetriedBeforeItsOffsetIsCommitted() throws InterruptedException {
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+        doReturn(Set.of(PARTITION)).when(kafkaConsumer).assignment();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        doThrow(new CannotAcquireLockException("lock timeout")).doAnswer(invocation -> {
+            // Commit while the first attempt has failed and the retry is running
+            consumer.onParallelListenerIdle(idleEvent(kafkaConsumer));
+            return null;
+        }).when(betMatchingService).processEventOutcome(any());
+
+        consumer.consumeEventOutcomeInParallel(record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null),
+            kafkaConsumer);
+        verify(settlementExecutor).execute(eq("event1"), task.capture());
+        task.getValue().run();
+        consumer.onParallelListenerIdle(idleEvent(kafkaConsumer));
+
+        verify(betMatchingService, times(2)).processEventOutcome(any());
+        InOrder commits = inOrder(kafkaConsumer);
+        commits.verify(kafkaConsumer).commitAsync(eq(Map.of(PARTITION, new OffsetAndMetadata(0))), any());
+        commits.verify(kafkaConsumer).commitAsync(eq(Map.of(PARTITION, new OffsetAndMetadata(1))), any());
+    }
+
+    @Test
+    void parallelSettlementThatNeverSucceedsIsNotCommitted() throws InterruptedException {
+        ReflectionTestUtils.setField(consumer, "retryIntervalMs", 10L);
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+        doReturn(Set.of(PARTITION)).when(kafkaConsumer).assignment();
+        doThrow(new CannotAcquireLockException("lock timeout")).when(betMatchingService).processEventOutcome(any());
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+
+        consumer.consumeEventOutcomeInParallel(record(0, "{\"eventId\":\"event1\",\"eventWinnerId\":\"team1\"}", null),
+            kafkaConsumer);
+        verify(settlementExecutor).execute(eq("event1"), task.capture());
+        // The worker keeps retrying until the executor shuts down and interrupts it
+        Thread worker = new Thread(task.getValue());
+        worker.start();
+        verify(betMatchingService, timeout(5000).atLeast(3)).processEventOutcome(any());
+        worker.interrupt();
+        worker.join(5000);
+        consumer.onParallelListenerIdle(idleEvent(kafkaConsumer));
+
+        verify(kafkaConsumer, never()).commitAsync(eq(Map.of(PARTITION, new OffsetAndMetadata(1))), any());
+    }
+
+    private ListenerContainerIdleEvent idleEvent() {
+        return idleEvent(mock(Consumer.class));
+    }
+
+    private ListenerContainerIdleEvent idleEvent(Consumer<?, ?> kafkaConsumer) {
+        return new ListenerContainerIdleEvent(parallelContainer, parallelContainer, 1000, "eventOutcomeParallelListener-0",
+            List.of(PARTITION), kafkaConsumer, true);
+    }
+
+    private static ConsumerRecord<String, EventOutcome> record(long offset, String json, String wireFormat) {
+        RecordHeaders headers = new RecordHeaders();
+        if (wireFormat != null) {
+            headers.add(WireFormat.HEADER, wireFormat.getBytes(StandardCharsets.UTF_8));
+        }
+        try (ErrorHandlingDeserializer<EventOutcome> deserializer = new ErrorHandlingDeserializer<>(new EventOutcomeDeserializer())) {
+            deserializer.configure(Map.of(JsonDeserializer.VALUE_DEFAULT_TYPE, EventOutcome.class.getName()), false);
+            EventOutcome value = deserializer.deserialize(PARTITION.topic(), headers, json.getBytes(StandardCharsets.UTF_8));
+            return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, System.currentTimeMillis(),
+                TimestampType.CREATE_TIME, -1, json.length(), null, value, headers, Optional.empty());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sportygroup.consumer;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Offsets settled out of order are committed only up to the first one still being settled
+ */
+class PendingOffsetsTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("event-outcomes", 0);
+
+    private final PendingOffsets pendingOffsets = new PendingOffsets();
+    private final MockConsumer<String, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pendingOffsets, "commitIntervalMs", 0L);
+        consumer.assign(List.of(PARTITION));
+        for (long offset = 10; offset < 13; offset++) {
+            pendingOffsets.received(PARTITION, offset);
+        }
+    }
+
+    @Test
+    void commitStopsAtTheLowestUnsettledOffset() {
+        pendingOffsets.commit(consumer);
+        assertEquals(10, committed().offset());
+
+        pendingOffsets.completed(PARTITION, 11);
+        pendingOffsets.completed(PARTITION, 12);
+        pendingOffsets.commit(consumer);
+        assertEquals(10, committed().offset());
+
+        pendingOffsets.completed(PARTITION, 10);
+        pendingOffsets.commit(consumer);
+        assertEquals(13, committed().offset());
+    }
+
+    @Test
+    void revocationCommitsWhatHasSettledAndForgetsThePartition() {
+        pendingOffsets.completed(PARTITION, 10);
+
+        pendingOffsets.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+        assertEquals(11, committed().offset());
+
+        pendingOffsets.completed(PARTITION, 11);
+        pendingOffsets.completed(PARTITION, 12);
+        pendingOffsets.commit(consumer);
+        assertEquals(11, committed().offset());
+    }
+
+    @Test
+    void skippedRecordIsCommittedPast() {
+        for (long offset = 10; offset < 13; offset++) {
+            pendingOffsets.completed(PARTITION, offset);
+        }
+
+        pendingOffsets.skipped(PARTITION, 13);
+        pendingOffsets.commit(consumer);
+        assertEquals(14, committed().offset());
+    }
+
+    private OffsetAndMetadata committed() {
+        return consumer.committed(Set.of(PARTITION)).get(PARTITION);
+    }
+}
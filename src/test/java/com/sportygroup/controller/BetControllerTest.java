@@ -0,0 +1,60 @@
+package com.sportygroup.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.dto.CreateBetsRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request validation of the bet placement endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void batchOverTheLimitIsRejected() throws Exception {
+        CreateBetsRequest request = new CreateBetsRequest(
+            Collections.nCopies(CreateBetsRequest.MAX_BETS + 1, bet("batch-limit")));
+
+        mockMvc.perform(post("/api/bets/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyBatchIsRejected() throws Exception {
+        mockMvc.perform(post("/api/bets/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bets\": []}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static CreateBetRequest bet(String userId) {
+        return CreateBetRequest.builder()
+            .userId(userId)
+            .eventId("batch-limit-event")
+            .eventMarketId("match-winner")
+            .eventWinnerId("team1")
+            .betAmount(new BigDecimal("10.00"))
+            .build();
+    }
+}
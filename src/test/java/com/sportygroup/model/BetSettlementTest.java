@@ -0,0 +1,35 @@
+package com.sportygroup.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.config.AppConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The settlement message keeps its JSON shape, with the payout as a decimal amount
+ */
+class BetSettlementTest {
+
+    private final ObjectMapper objectMapper = new AppConfig().objectMapper();
+
+    @Test
+    void serializesPayoutAsDecimalAmount() throws Exception {
+        BetSettlement settlement = new BetSettlement(1L, "user123", BetStatus.WON, 18500,
+            LocalDateTime.of(2024, 1, 1, 12, 0), "event001");
+
+        assertEquals("{\"betId\":1,\"userId\":\"user123\",\"settlementStatus\":\"WON\",\"payoutAmount\":185.00," +
+                "\"settlementTime\":[2024,1,1,12,0],\"eventId\":\"event001\"}",
+            objectMapper.writeValueAsString(settlement));
+    }
+
+    @Test
+    void roundTripsThroughJson() throws Exception {
+        BetSettlement settlement = new BetSettlement(1L, "user123", BetStatus.WON, 18507,
+            LocalDateTime.of(2024, 1, 1, 12, 0), "event001");
+
+        assertEquals(settlement, objectMapper.readValue(objectMapper.writeValueAsBytes(settlement), BetSettlement.class));
+    }
+}
@@ -0,0 +1,42 @@
+package com.sportygroup.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Lease hand-over between relay instances. Uses a shard number the running relay never leases.
+ */
+@SpringBootTest
+class SettlementOutboxLeaseRepositoryTest {
+
+    private static final int SHARD = 1000;
+
+    @Autowired
+    private SettlementOutboxLeaseRepository leaseRepository;
+
+    @Test
+    void leaseIsHeldByOneOwnerUntilItExpiresOrIsReleased() {
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(0, leaseRepository.acquire(SHARD, "a", now, now.plusSeconds(30)));
+        leaseRepository.insert(SHARD, "a", now.plusSeconds(30));
+        assertThrows(DataIntegrityViolationException.class, () -> leaseRepository.insert(SHARD, "b", now.plusSeconds(30)));
+
+        assertEquals(0, leaseRepository.acquire(SHARD, "b", now, now.plusSeconds(30)));
+        assertEquals(1, leaseRepository.acquire(SHARD, "a", now, now.plusSeconds(30)));
+
+        // Expired: another owner takes it over, and the old owner can no longer renew it
+        LocalDateTime later = now.plusSeconds(31);
+        assertEquals(1, leaseRepository.acquire(SHARD, "b", later, later.plusSeconds(30)));
+        assertEquals(0, leaseRepository.acquire(SHARD, "a", later, later.plusSeconds(30)));
+
+        leaseRepository.releaseAll("b", later);
+        assertEquals(1, leaseRepository.acquire(SHARD, "a", later.plusNanos(1000), later.plusSeconds(30)));
+    }
+}
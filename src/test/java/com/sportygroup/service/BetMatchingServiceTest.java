@@ -0,0 +1,109 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.model.OutcomeSource;
+import com.sportygroup.repository.BetIdRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Event outcome processing that does not need a database
+ */
+class BetMatchingServiceTest {
+
+    private final BetService betService = mock(BetService.class);
+    private final SettlementOutboxService settlementOutboxService = mock(SettlementOutboxService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final OddsCache oddsCache = mock(OddsCache.class);
+    private final OutcomeIdempotencyGuard idempotencyGuard = mock(OutcomeIdempotencyGuard.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BetMatchingService betMatchingService;
+
+    @BeforeEach
+    void setUp() {
+        betMatchingService = new BetMatchingService(betService, settlementOutboxService, transactionTemplate, meterRegistry, oddsCache, idempotencyGuard, new ThreadFactories(false));
+        ReflectionTestUtils.invokeMethod(betMatchingService, "registerGauges");
+        when(oddsCache.get(anyString())).thenReturn(EventOdds.empty());
+        when(idempotencyGuard.isProcessed(anyString(), anyLong())).thenReturn(false);
+    }
+
+    @Test
+    void failedBatchIsNoLongerCountedInFlight() {
+        when(transactionTemplate.execute(any())).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThrows(CannotAcquireLockException.class, () -> betMatchingService.processEventOutcomes(List.of(
+            new EventOutcome("event1", "Event 1", "team1"), new EventOutcome("event2", "Event 2", "team1"))));
+
+        assertEquals(0, meterRegistry.get("settlement.events.inflight").gauge().value());
+    }
+
+    @Test
+    void pendingBetCannotBeTurnedIntoASettlement() {
+        Bet bet = new Bet("user1", "event1", "match-winner", "team1", new BigDecimal("10.00"));
+
+        assertThrows(IllegalStateException.class, () -> betMatchingService.createBetSettlement(
+            bet, new EventOutcome("event1", "Event 1", "team1"), EventOdds.empty()));
+    }
+
+    @Test
+    void betsPlacedAboveTheLastRangeAreSettledWithTheClaim() {
+        runTransactionsInline();
+        ExecutorService rangePool = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(betMatchingService, "rangePool", rangePool);
+        ReflectionTestUtils.setField(betMatchingService, "rangeSize", 50_000L);
+        ReflectionTestUtils.setField(betMatchingService, "rangeParallelism", 1);
+        EventOutcome eventOutcome = new EventOutcome("event1", "Event 1", "team1");
+        OutcomeIndex outcome = OutcomeIndex.of(eventOutcome);
+        Bet late = new Bet("user1", "event1", "match-winner", "team1", new BigDecimal("10.00"));
+        late.setBetId(101L);
+        late.setStatus(BetStatus.WON);
+        when(betService.settleEventBetRange(eq(outcome), any(), eq(1L), eq(100L))).thenReturn(List.of());
+        when(betService.settleEventBetRange(eq(outcome), any(), eq(101L), eq(Long.MAX_VALUE))).thenReturn(List.of(late));
+
+        try {
+            betMatchingService.processEventOutcomeInRanges(outcome, eventOutcome, new BetIdRange(1L, 100L, 100));
+        } finally {
+            rangePool.shutdown();
+        }
+
+        InOrder claimThenSettle = inOrder(idempotencyGuard, betService);
+        claimThenSettle.verify(idempotencyGuard).claim("event1", 1L);
+        claimThenSettle.verify(betService).settleEventBetRange(eq(outcome), any(), eq(101L), eq(Long.MAX_VALUE));
+        verify(settlementOutboxService).enqueue(argThat((List<BetSettlement> settlements) ->
+            settlements.size() == 1 && settlements.get(0).betId() == 101L), (OutcomeSource) any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -0,0 +1,127 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.model.Bet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Group-commit callers always get an answer: a committed bet, a failure, or a timeout
+ */
+class BetPlacementBufferTest {
+
+    private final BetService betService = mock(BetService.class);
+    private BetPlacementBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.shutdown();
+    }
+
+    @Test
+    void committedBetIsReturned() throws InterruptedException {
+        Bet bet = Bet.builder().betId(1L).userId("user1").build();
+        when(betService.createBets(anyList())).thenReturn(List.of(bet));
+        buffer = buffer(30_000);
+
+        assertEquals(bet, buffer.createBet(request()));
+    }
+
+    @Test
+    void errorInCommitFailsTheCallerInsteadOfHangingIt() {
+        when(betService.createBets(anyList())).thenThrow(new OutOfMemoryError("test"));
+        buffer = buffer(30_000);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> buffer.createBet(request()));
+        assertInstanceOf(OutOfMemoryError.class, e.getCause());
+    }
+
+    @Test
+    void placementsAfterShutdownAreRejected() throws InterruptedException {
+        buffer = buffer(30_000);
+        buffer.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> buffer.createBet(request()));
+    }
+
+    @Test
+    void queuedPlacementsAreFailedWhenTheWriterStops() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(betService.createBets(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            throw new OutOfMemoryError("test");
+        });
+        buffer = buffer(30_000);
+
+        CompletableFuture<Bet> first = placeAsync();
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        // Queued behind the failing batch; the writer dies with the Error before taking it
+        CompletableFuture<Bet> queued = placeAsync();
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void callerGivesUpAfterTheTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(betService.createBets(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        buffer = buffer(100);
+
+        try {
+            assertThrows(IllegalStateException.class, () -> buffer.createBet(request()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private CompletableFuture<Bet> placeAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return buffer.createBet(request());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private BetPlacementBuffer buffer(long timeoutMillis) {
+        return new BetPlacementBuffer(betService, new ThreadFactories(false), new SimpleMeterRegistry(),
+            true, 200, 1, 100, timeoutMillis);
+    }
+
+    private static CreateBetRequest request() {
+        return CreateBetRequest.builder()
+            .userId("user1")
+            .eventId("event1")
+            .eventMarketId("match-winner")
+            .eventWinnerId("team1")
+            .betAmount(new BigDecimal("10.00"))
+            .build();
+    }
+}
@@ -0,0 +1,221 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.BetRepository;
+import com.sportygroup.repository.SettlementCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Settlement transactions of BetService against the database
+ */
+@SpringBootTest
+class BetServiceTest {
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private SettlementCheckpointRepository settlementCheckpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void chunkSettledConcurrentlyRollsBackOnVersionConflict() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "chunk-conflict", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user2", "chunk-conflict", "match-winner", "team2", new BigDecimal("10.00"))));
+        OutcomeIndex outcome = OutcomeIndex.of(new EventOutcome("chunk-conflict", "Conflict", "team1"));
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            betService.settleNextChunk(outcome, 10);
+            // Another settler commits a change to the second bet before this chunk is flushed
+            concurrent.executeWithoutResult(other -> jdbcTemplate.update(
+                "UPDATE bets SET version = version + 1 WHERE bet_id = ?", bets.get(1).getBetId()));
+        }));
+
+        // The whole chunk rolled back: both bets are pending and the checkpoint did not move
+        for (Bet bet : bets) {
+            assertEquals(BetStatus.PENDING, betRepository.findById(bet.getBetId()).orElseThrow().getStatus());
+        }
+        assertFalse(settlementCheckpointRepository.existsById("chunk-conflict"));
+
+        // A retry with the current versions settles the chunk
+        assertEquals(2, betService.settleNextChunk(outcome, 10).size());
+        assertEquals(BetStatus.WON, betRepository.findById(bets.get(0).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.LOST, betRepository.findById(bets.get(1).getBetId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void voidedMarketIsVoidedBeforeItsResultAndRefunded() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "void-market", "over-under", "over", new BigDecimal("12.50")),
+            new Bet("user2", "void-market", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user3", "void-market", "match-winner", "team2", new BigDecimal("10.00"))));
+        EventOutcome eventOutcome = EventOutcome.builder()
+            .eventId("void-market")
+            .eventWinnerId("team1")
+            .marketResults(Map.of("over-under", "over"))
+            .voidedMarkets(Set.of("over-under"))
+            .build();
+
+        List<Bet> settled = transactionTemplate.execute(status -> betService.settleEventBets(OutcomeIndex.of(eventOutcome)));
+
+        assertEquals(3, settled.size());
+        assertEquals(BetStatus.VOID, betRepository.findById(bets.get(0).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.WON, betRepository.findById(bets.get(1).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.LOST, betRepository.findById(bets.get(2).getBetId()).orElseThrow().getStatus());
+        Bet voided = settled.stream().filter(bet -> bet.getBetId().equals(bets.get(0).getBetId())).findFirst().orElseThrow();
+        BetSettlement refund = betMatchingService.createBetSettlement(voided, eventOutcome, EventOdds.empty());
+        assertEquals(BetStatus.VOID, refund.settlementStatus());
+        assertEquals(new BigDecimal("12.50"), refund.payoutAmount());
+    }
+
+    @Test
+    void cancelledEventVoidsEveryPendingBet() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "void-event", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user2", "void-event", "over-under", "under", new BigDecimal("5.00"))));
+        EventOutcome eventOutcome = EventOutcome.builder()
+            .eventId("void-event")
+            .eventWinnerId("team1")
+            .cancelled(true)
+            .build();
+
+        List<Bet> settled = transactionTemplate.execute(status -> betService.settleEventBets(OutcomeIndex.of(eventOutcome)));
+
+        assertEquals(2, settled.size());
+        for (Bet bet : bets) {
+            assertEquals(BetStatus.VOID, betRepository.findById(bet.getBetId()).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void marketResultsSettleTheirMarketsAndTheRestTakesTheDefaultWinner() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "market-results", "half-time", "team2", new BigDecimal("10.00")),
+            new Bet("user2", "market-results", "half-time", "team1", new BigDecimal("10.00")),
+            new Bet("user3", "market-results", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user4", "market-results", "match-winner", "team2", new BigDecimal("10.00"))));
+        EventOutcome eventOutcome = EventOutcome.builder()
+            .eventId("market-results")
+            .eventWinnerId("team1")
+            .marketResults(Map.of("half-time", "team2"))
+            .build();
+
+        List<Bet> settled = transactionTemplate.execute(status -> betService.settleEventBets(OutcomeIndex.of(eventOutcome)));
+
+        assertEquals(4, settled.size());
+        assertEquals(BetStatus.WON, betRepository.findById(bets.get(0).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.LOST, betRepository.findById(bets.get(1).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.WON, betRepository.findById(bets.get(2).getBetId()).orElseThrow().getStatus());
+        assertEquals(BetStatus.LOST, betRepository.findById(bets.get(3).getBetId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void unresultedMarketStaysPendingWithoutADefaultWinner() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "unresulted-market", "half-time", "team1", new BigDecimal("10.00")),
+            new Bet("user2", "unresulted-market", "over-under", "over", new BigDecimal("10.00"))));
+        EventOutcome eventOutcome = EventOutcome.builder()
+            .eventId("unresulted-market")
+            .marketResults(Map.of("half-time", "team1"))
+            .build();
+
+        List<Bet> settled = transactionTemplate.execute(status -> betService.settleEventBets(OutcomeIndex.of(eventOutcome)));
+
+        assertEquals(List.of(bets.get(0).getBetId()), settled.stream().map(Bet::getBetId).toList());
+        assertEquals(BetStatus.WON, betRepository.findById(bets.get(0).getBetId()).orElseThrow().getStatus());
+        Bet pending = betRepository.findById(bets.get(1).getBetId()).orElseThrow();
+        assertEquals(BetStatus.PENDING, pending.getStatus());
+        assertNull(pending.getSettledAt());
+    }
+
+    @Test
+    void resettlementResumesAfterItsCheckpointAndReportsOnlyChangedBets() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "resettle-resume", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user2", "resettle-resume", "match-winner", "team2", new BigDecimal("10.00")),
+            new Bet("user3", "resettle-resume", "match-winner", "team1", new BigDecimal("10.00"))));
+        transactionTemplate.executeWithoutResult(status ->
+            betService.settleEventBets(OutcomeIndex.of(new EventOutcome("resettle-resume", "Resume", "team1"))));
+        // The second bet was wrongly settled as a win
+        jdbcTemplate.update("UPDATE bets SET status = 'WON' WHERE bet_id = ?", bets.get(1).getBetId());
+        OutcomeIndex outcome = OutcomeIndex.of(new EventOutcome("resettle-resume", "Resume", "team1"));
+
+        ResettledChunk first = betService.resettleNextChunk("resume-run", outcome, 2);
+        assertEquals(2, first.scanned());
+        assertEquals(List.of(bets.get(1).getBetId()), first.changed().stream().map(Bet::getBetId).toList());
+        assertEquals(List.of(bets.get(0).getBetId()), first.unchangedWinners().stream().map(Bet::getBetId).toList());
+        assertEquals(BetStatus.LOST, betRepository.findById(bets.get(1).getBetId()).orElseThrow().getStatus());
+
+        // A resubmitted run continues after the committed chunk
+        ResettledChunk second = betService.resettleNextChunk("resume-run", outcome, 2);
+        assertEquals(1, second.scanned());
+        assertEquals(List.of(), second.changed());
+        assertEquals(List.of(bets.get(2).getBetId()), second.unchangedWinners().stream().map(Bet::getBetId).toList());
+        assertNull(betService.resettleNextChunk("resume-run", outcome, 2));
+        assertNull(betService.resettleNextChunk("resume-run", outcome, 2));
+
+        // A new run ID scans the event again
+        assertEquals(2, betService.resettleNextChunk("rescan-run", outcome, 2).scanned());
+    }
+
+    @Test
+    void marketWonOnTwoSelectionsIsLeftOutOfTheInferredOutcome() {
+        List<Bet> bets = betRepository.saveAll(List.of(
+            new Bet("user1", "ambiguous-market", "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet("user2", "ambiguous-market", "match-winner", "team2", new BigDecimal("10.00")),
+            new Bet("user3", "ambiguous-market", "over-under", "over", new BigDecimal("10.00")),
+            new Bet("user4", "ambiguous-market", "over-under", "under", new BigDecimal("10.00"))));
+        jdbcTemplate.update("UPDATE bets SET status = 'WON', settled_at = CURRENT_TIMESTAMP WHERE event_id = 'ambiguous-market'");
+        jdbcTemplate.update("UPDATE bets SET status = 'LOST' WHERE bet_id = ?", bets.get(3).getBetId());
+
+        InferredOutcome inferred = betService.inferOutcome("ambiguous-market");
+        assertEquals(Set.of("match-winner"), inferred.ambiguousMarkets());
+        assertEquals(Map.of("over-under", "over"), inferred.outcome().getMarketResults());
+
+        ResettledChunk chunk = betService.resettleNextChunk("ambiguous-run", OutcomeIndex.of(inferred.outcome()), 10);
+        assertEquals(4, chunk.scanned());
+        assertEquals(List.of(), chunk.changed());
+        List<BetStatus> expected = List.of(BetStatus.WON, BetStatus.WON, BetStatus.WON, BetStatus.LOST);
+        for (int i = 0; i < bets.size(); i++) {
+            assertEquals(expected.get(i), betRepository.findById(bets.get(i).getBetId()).orElseThrow().getStatus());
+        }
+    }
+}
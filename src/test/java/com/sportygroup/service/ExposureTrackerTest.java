@@ -0,0 +1,72 @@
+package com.sportygroup.service;
+
+import com.sportygroup.dto.EventExposureResponse;
+import com.sportygroup.model.Bet;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In-memory exposure counters, without the startup rebuild
+ */
+class ExposureTrackerTest {
+
+    private final ExposureTracker tracker = new ExposureTracker(null, null, null);
+
+    @Test
+    void eventIsDroppedOnceNoSelectionHasOpenBets() {
+        Bet home = bet("home", "1.50");
+        Bet away = bet("away", null);
+        tracker.placed(List.of(home, away));
+
+        tracker.settled(List.of(home));
+        EventExposureResponse exposure = tracker.get("event001").orElseThrow();
+        assertEquals(1, exposure.getOpenBets());
+        assertEquals(new BigDecimal("10.00"), exposure.getTotalUnpricedStake());
+
+        tracker.settled(List.of(away));
+        assertTrue(tracker.get("event001").isEmpty());
+    }
+
+    @Test
+    void placementsRacingWithRemovalAreKept() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        Bet bet = bet("home", "2.00");
+                        tracker.placed(List.of(bet));
+                        tracker.settled(List.of(bet));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(tracker.get("event001").isEmpty());
+
+        tracker.placed(List.of(bet("home", "2.00")));
+        EventExposureResponse exposure = tracker.get("event001").orElseThrow();
+        assertEquals(1, exposure.getOpenBets());
+        assertEquals(new BigDecimal("20.00"), exposure.getSelections().get(0).getPotentialPayout());
+    }
+
+    private static Bet bet(String winnerId, String odds) {
+        Bet bet = new Bet("user1", "event001", "match-winner", winnerId, new BigDecimal("10.00"));
+        bet.setOdds(odds == null ? null : new BigDecimal(odds));
+        return bet;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Odds snapshots cached in front of the in-memory provider, and the payouts settled from them
+ */
+class OddsCacheTest {
+
+    private final InMemoryOddsProvider oddsProvider = spy(new InMemoryOddsProvider());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedLookupsOfAnEventHitTheCache() {
+        OddsCache oddsCache = new OddsCache(oddsProvider, meterRegistry, 100, 300);
+        oddsProvider.putOdds("event1", "match-winner", "team1", new BigDecimal("1.85"));
+
+        EventOdds first = oddsCache.get("event1");
+        EventOdds second = oddsCache.get("event1");
+
+        assertSame(first, second);
+        assertEquals(new BigDecimal("1.85"), second.get("match-winner", "team1"));
+        verify(oddsProvider, times(1)).getEventOdds("event1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "odds").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void snapshotIsReloadedOnceItsTtlHasExpired() throws InterruptedException {
+        OddsCache oddsCache = new OddsCache(oddsProvider, meterRegistry, 100, 1);
+        oddsProvider.putOdds("event1", "match-winner", "team1", new BigDecimal("1.85"));
+        assertEquals(new BigDecimal("1.85"), oddsCache.get("event1").get("match-winner", "team1"));
+
+        // A price change is not seen while the snapshot is cached
+        oddsProvider.putOdds("event1", "match-winner", "team1", new BigDecimal("2.10"));
+        assertEquals(new BigDecimal("1.85"), oddsCache.get("event1").get("match-winner", "team1"));
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertEquals(new BigDecimal("2.10"), oddsCache.get("event1").get("match-winner", "team1"));
+        verify(oddsProvider, times(2)).getEventOdds("event1");
+    }
+
+    @Test
+    void winningBetWithoutAnyPriceIsPaidAtDefaultOdds() {
+        OddsCache oddsCache = new OddsCache(oddsProvider, meterRegistry, 100, 300);
+        oddsProvider.putOdds("event1", "match-winner", "team1", new BigDecimal("1.85"));
+        BetMatchingService betMatchingService = new BetMatchingService(mock(BetService.class),
+            mock(SettlementOutboxService.class), mock(TransactionTemplate.class), meterRegistry, oddsCache,
+            mock(OutcomeIdempotencyGuard.class), new ThreadFactories(false));
+        EventOutcome outcome = new EventOutcome("event1", "Event 1", "team1");
+        EventOdds odds = oddsCache.get("event1");
+        assertNull(odds.get("over-under", "over"));
+        assertTrue(oddsCache.get("event2").isEmpty());
+
+        // Priced selection: paid at the snapshot's odds
+        assertEquals(1850, betMatchingService.createBetSettlement(wonBet("match-winner", "team1"), outcome, odds).payoutCents());
+        // Unpriced selection: paid at the default odds of 2.0 and counted
+        assertEquals(2000, betMatchingService.createBetSettlement(wonBet("over-under", "over"), outcome, odds).payoutCents());
+        assertEquals(1.0, meterRegistry.get("settlement.odds.default").counter().count());
+    }
+
+    private static Bet wonBet(String marketId, String winnerId) {
+        Bet bet = new Bet("user1", "event1", marketId, winnerId, new BigDecimal("10.00"));
+        bet.setStatus(BetStatus.WON);
+        return bet;
+    }
+}
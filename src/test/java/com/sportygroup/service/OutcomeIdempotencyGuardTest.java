@@ -0,0 +1,90 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.BetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outcome replays and concurrent claims against the database
+ */
+@SpringBootTest
+class OutcomeIdempotencyGuardTest {
+
+    @Autowired
+    private OutcomeIdempotencyGuard idempotencyGuard;
+
+    @Autowired
+    private BetMatchingService betMatchingService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayedOutcomeIsSkipped() {
+        Bet bet = betRepository.save(new Bet("user1", "guard-replay", "match-winner", "team1", new BigDecimal("10.00")));
+        EventOutcome outcome = new EventOutcome("guard-replay", "Replay", "team1");
+        betMatchingService.processEventOutcome(outcome);
+        assertEquals(BetStatus.WON, betRepository.findById(bet.getBetId()).orElseThrow().getStatus());
+        assertTrue(idempotencyGuard.isProcessed("guard-replay", 1));
+        assertFalse(idempotencyGuard.isProcessed("guard-replay", 2));
+
+        // A replay must not touch bets, so a bet made pending again behind its back stays pending
+        jdbcTemplate.update("UPDATE bets SET status = 'PENDING', settled_at = NULL WHERE bet_id = ?", bet.getBetId());
+        betMatchingService.processEventOutcome(outcome);
+        assertEquals(BetStatus.PENDING, betRepository.findById(bet.getBetId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void concurrentClaimOfTheSameVersionFails() throws Exception {
+        CountDownLatch claimed = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            idempotencyGuard.claim("guard-claim", 1);
+            claimed.countDown();
+            try {
+                // Hold the uncommitted claim while the second delivery inserts its own
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+            status -> idempotencyGuard.claim("guard-claim", 1)));
+        first.get(10, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        assertTrue(idempotencyGuard.isProcessed("guard-claim", 1));
+
+        // A later version is a new outcome and can still be claimed
+        transactionTemplate.executeWithoutResult(status -> idempotencyGuard.claim("guard-claim", 2));
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(
+            "SELECT outcome_version FROM processed_outcomes WHERE event_id = 'guard-claim' ORDER BY outcome_version", Long.class));
+    }
+}
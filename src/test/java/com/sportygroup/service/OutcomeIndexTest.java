@@ -0,0 +1,85 @@
+package com.sportygroup.service;
+
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OutcomeIndexTest {
+
+    @Test
+    void cancelledEventVoidsEveryBet() {
+        OutcomeIndex outcome = OutcomeIndex.of(EventOutcome.builder()
+            .eventId("event1")
+            .eventWinnerId("team1")
+            .marketResults(Map.of("over-under", "over"))
+            .cancelled(true)
+            .build());
+
+        assertEquals(BetStatus.VOID, outcome.settle(bet("match-winner", "team1")));
+        assertEquals(BetStatus.VOID, outcome.settle(bet("over-under", "under")));
+        assertEquals(BetStatus.VOID, outcome.settle(bet("first-scorer", "player9")));
+    }
+
+    @Test
+    void voidedMarketOverridesItsMarketResult() {
+        OutcomeIndex outcome = OutcomeIndex.of(EventOutcome.builder()
+            .eventId("event1")
+            .marketResults(Map.of("over-under", "over", "match-winner", "team1"))
+            .voidedMarkets(Set.of("over-under"))
+            .build());
+
+        assertEquals(BetStatus.VOID, outcome.settle(bet("over-under", "over")));
+        assertEquals(BetStatus.VOID, outcome.settle(bet("over-under", "under")));
+        assertEquals(BetStatus.WON, outcome.settle(bet("match-winner", "team1")));
+    }
+
+    @Test
+    void voidedMarketOverridesTheDefaultWinner() {
+        OutcomeIndex outcome = OutcomeIndex.of(EventOutcome.builder()
+            .eventId("event1")
+            .eventWinnerId("team1")
+            .voidedMarkets(Set.of("half-time"))
+            .build());
+
+        assertEquals(BetStatus.VOID, outcome.settle(bet("half-time", "team1")));
+        assertEquals(BetStatus.WON, outcome.settle(bet("match-winner", "team1")));
+        assertEquals(BetStatus.LOST, outcome.settle(bet("match-winner", "team2")));
+    }
+
+    @Test
+    void marketResultOverridesTheDefaultWinner() {
+        OutcomeIndex outcome = OutcomeIndex.of(EventOutcome.builder()
+            .eventId("event1")
+            .eventWinnerId("team1")
+            .marketResults(Map.of("half-time", "team2"))
+            .build());
+
+        assertEquals(BetStatus.WON, outcome.settle(bet("half-time", "team2")));
+        assertEquals(BetStatus.LOST, outcome.settle(bet("half-time", "team1")));
+        assertEquals(BetStatus.WON, outcome.settle(bet("match-winner", "team1")));
+        assertEquals(BetStatus.LOST, outcome.settle(bet("match-winner", "team2")));
+    }
+
+    @Test
+    void marketWithoutResultOrDefaultWinnerStaysPending() {
+        OutcomeIndex outcome = OutcomeIndex.of(EventOutcome.builder()
+            .eventId("event1")
+            .marketResults(Map.of("match-winner", "team1"))
+            .build());
+
+        assertNull(outcome.settle(bet("over-under", "over")));
+        assertEquals(BetStatus.WON, outcome.settle(bet("match-winner", "team1")));
+    }
+
+    private static Bet bet(String marketId, String winnerId) {
+        return new Bet("user1", "event1", marketId, winnerId, new BigDecimal("10.00"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.sportygroup.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Golden tests: fixed-point payouts must equal the BigDecimal payout the service used before,
+ * amount × odds rounded half-even to the cent.
+ */
+class PayoutCalculatorTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "100.00, 1.85,      185.00",
+        "50.00,  2.0,       100.00",
+        "10.05,  1.5,       15.08",    // 15.075: tie rounds to the even cent
+        "10.15,  1.5,       15.22",    // 15.225: tie rounds to the even cent
+        "0.01,   1.0001,    0.01",
+        "0.01,   1.5,       0.02",     // 0.015: tie rounds to the even cent
+        "0.03,   1.5,       0.04",     // 0.045: tie rounds to the even cent
+        "99999999.99, 9999.9999, 999999989900.00",
+        "1,      3,         3.00",
+        "12.34,  1.23456,   15.23",    // odds beyond 4 decimals take the BigDecimal path
+        "100000000.00, 2,   200000000.00",   // amount beyond 8 integer digits takes the BigDecimal path
+        "1E+2,   2,         200.00"    // negative scale takes the BigDecimal path
+    })
+    void matchesBigDecimalPayout(BigDecimal amount, BigDecimal odds, BigDecimal expected) {
+        assertEquals(expected, BigDecimal.valueOf(PayoutCalculator.payoutCents(amount, odds), 2));
+        assertEquals(reference(amount, odds), PayoutCalculator.payoutCents(amount, odds));
+    }
+
+    @Test
+    void matchesBigDecimalPayoutForRandomAmountsAndOdds() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), 2);
+            BigDecimal odds = BigDecimal.valueOf(random.nextLong(10_000, 100_000_000L), random.nextInt(5));
+            assertEquals(reference(amount, odds), PayoutCalculator.payoutCents(amount, odds),
+                () -> amount + " x " + odds);
+        }
+    }
+
+    private static long reference(BigDecimal amount, BigDecimal odds) {
+        return amount.multiply(odds).setScale(2, RoundingMode.HALF_EVEN).movePointRight(2).longValueExact();
+    }
+}
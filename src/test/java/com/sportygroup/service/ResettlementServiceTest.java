@@ -0,0 +1,154 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.dto.ResettlementReport;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetSettlement;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOdds;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.model.OutcomeSource;
+import com.sportygroup.repository.BetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resettlement runs over mocked chunks: what is republished and how fast
+ */
+class ResettlementServiceTest {
+
+    private final BetService betService = mock(BetService.class);
+    private final BetMatchingService betMatchingService = mock(BetMatchingService.class);
+    private final SettlementOutboxService settlementOutboxService = mock(SettlementOutboxService.class);
+    private final OddsCache oddsCache = mock(OddsCache.class);
+    // Parallel settlement disabled: no executor to yield to
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SettlementExecutor> settlementExecutor = mock(ObjectProvider.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final EventOutcome outcome = new EventOutcome("event1", "Event 1", "team1");
+    private ResettlementService resettlementService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(oddsCache.get("event1")).thenReturn(EventOdds.empty());
+        when(betMatchingService.createBetSettlement(any(), any(), any())).thenAnswer(invocation -> {
+            Bet bet = invocation.getArgument(0);
+            return new BetSettlement(bet.getBetId(), bet.getUserId(), bet.getStatus(), 0, LocalDateTime.now(), bet.getEventId());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        resettlementService.shutdown();
+    }
+
+    @Test
+    void onlyChangedBetsAreRepublished() throws InterruptedException {
+        resettlementService = service(0);
+        Bet changed = bet(1L, BetStatus.WON);
+        Bet unchangedWinner = bet(2L, BetStatus.WON);
+        when(betService.resettleNextChunk(eq("run1"), any(), anyInt()))
+            .thenReturn(new ResettledChunk(3, List.of(changed), List.of(unchangedWinner)))
+            .thenReturn(null);
+
+        ResettlementReport report = await(resettlementService.start("run1", List.of(), null, null, List.of(outcome), false));
+
+        assertEquals(ResettlementReport.Status.COMPLETED, report.getStatus());
+        assertEquals(3, report.getBetsScanned());
+        assertEquals(1, report.getBetsChanged());
+        assertEquals(1, report.getSettlementsRepublished());
+        verify(settlementOutboxService).enqueue(argThat((List<BetSettlement> settlements) ->
+            settlements.stream().map(BetSettlement::betId).toList().equals(List.of(1L))), (OutcomeSource) eq(null));
+    }
+
+    @Test
+    void unchangedWinnersAreRepublishedOnRequest() throws InterruptedException {
+        resettlementService = service(0);
+        when(betService.resettleNextChunk(eq("run2"), any(), anyInt()))
+            .thenReturn(new ResettledChunk(3, List.of(bet(1L, BetStatus.WON)), List.of(bet(2L, BetStatus.WON))))
+            .thenReturn(null);
+
+        ResettlementReport report = await(resettlementService.start("run2", List.of(), null, null, List.of(outcome), true));
+
+        assertEquals(2, report.getSettlementsRepublished());
+        verify(settlementOutboxService).enqueue(argThat((List<BetSettlement> settlements) ->
+            settlements.stream().map(BetSettlement::betId).toList().equals(List.of(1L, 2L))), (OutcomeSource) eq(null));
+    }
+
+    @Test
+    void chunksArePacedToMaxBetsPerSecond() throws InterruptedException {
+        // Chunks of 100 bets at 1000 bets per second: the first goes straight away, each later one waits 100 ms
+        resettlementService = service(1000);
+        when(betService.resettleNextChunk(eq("run3"), any(), anyInt()))
+            .thenReturn(new ResettledChunk(100, List.of(), List.of()))
+            .thenReturn(new ResettledChunk(100, List.of(), List.of()))
+            .thenReturn(null);
+
+        long start = System.nanoTime();
+        ResettlementReport report = await(resettlementService.start("run3", List.of(), null, null, List.of(outcome), false));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(200, report.getBetsScanned());
+        assertTrue(elapsedMillis >= 200, "Run took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void eventWhoseOnlyMarketIsAmbiguousIsSkippedAndCounted() throws InterruptedException {
+        resettlementService = service(0);
+        when(betService.inferOutcome("event1")).thenReturn(new InferredOutcome(null, Set.of("match-winner")));
+
+        ResettlementReport report = await(resettlementService.start("run4", List.of("event1"), null, null, List.of(), false));
+
+        assertEquals(ResettlementReport.Status.COMPLETED, report.getStatus());
+        assertEquals(1, report.getEventsSkipped());
+        assertEquals(1, report.getMarketsSkipped());
+        verify(betService, never()).resettleNextChunk(any(), any(), anyInt());
+    }
+
+    private ResettlementService service(long maxBetsPerSecond) {
+        return new ResettlementService(betService, betMatchingService, settlementOutboxService, oddsCache, settlementExecutor,
+            mock(BetRepository.class), transactionTemplate, new SimpleMeterRegistry(), new ThreadFactories(false),
+            1, 100, maxBetsPerSecond);
+    }
+
+    private ResettlementReport await(ResettlementReport started) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ResettlementReport report = started;
+        while (report.getStatus() == ResettlementReport.Status.RUNNING && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            report = resettlementService.getReport(started.getRunId()).orElseThrow();
+        }
+        return report;
+    }
+
+    private static Bet bet(long betId, BetStatus status) {
+        Bet bet = new Bet("user1", "event1", "match-winner", "team1", new BigDecimal("10.00"));
+        bet.setBetId(betId);
+        bet.setStatus(status);
+        return bet;
+    }
+}
@@ -0,0 +1,92 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shard ordering and the back-pressure thresholds of the settlement executor
+ */
+class SettlementExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SettlementExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void outcomesOfOneEventRunInOrderOnOneWorker() throws InterruptedException {
+        executor = new SettlementExecutor(meterRegistry, new ThreadFactories(false), 4, 1000, 500, 100);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            int sequence = i;
+            executor.execute("event1", () -> {
+                order.add(sequence);
+                threads.add(Thread.currentThread().getName());
+                done.countDown();
+            });
+            // Other events interleaved on the remaining shards must not reorder event1
+            executor.execute("event" + (i % 7 + 2), () -> { });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 200).boxed().toList(), order);
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    void saturatesAtPauseDepthAndDrainsAtResumeDepth() throws InterruptedException {
+        executor = new SettlementExecutor(meterRegistry, new ThreadFactories(false), 1, 10, 3, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        executor.execute("event1", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(executor.isDrained());
+
+        // The worker is busy, so everything submitted now waits in the queue
+        executor.execute("event1", done::countDown);
+        executor.execute("event1", done::countDown);
+        assertFalse(executor.isSaturated());
+        assertFalse(executor.isDrained());
+        executor.execute("event1", done::countDown);
+        assertTrue(executor.isSaturated());
+        assertEquals(3.0, meterRegistry.get("settlement.executor.queue.depth").gauge().value());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertFalse(executor.isSaturated());
+        assertTrue(executor.isDrained());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sportygroup.service;
+
+import com.sportygroup.config.ThreadFactories;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.SettlementOutbox;
+import com.sportygroup.repository.SettlementOutboxLeaseRepository;
+import com.sportygroup.repository.SettlementOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox shards are drained only under their lease
+ */
+class SettlementOutboxRelayTest {
+
+    private final SettlementOutboxRepository outboxRepository = mock(SettlementOutboxRepository.class);
+    private final SettlementOutboxLeaseRepository leaseRepository = mock(SettlementOutboxLeaseRepository.class);
+    private final SettlementOutboxService outboxService = mock(SettlementOutboxService.class);
+    private final BetSettlementService betSettlementService = mock(BetSettlementService.class);
+    private SettlementOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new SettlementOutboxRelay(outboxRepository, leaseRepository, outboxService, betSettlementService,
+            new SimpleMeterRegistry(), new ThreadFactories(false), 1, 30_000);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        when(outboxService.getShards()).thenReturn(1);
+        when(outboxRepository.findByShardOrderByIdAsc(eq(0), any()))
+            .thenReturn(List.of(entry()))
+            .thenReturn(List.of());
+        when(betSettlementService.sendBetSettlements(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void shardLeasedByAnotherInstanceIsNotDrained() {
+        when(leaseRepository.acquire(eq(0), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(0)).thenReturn(true);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).findByShardOrderByIdAsc(anyInt(), any());
+        verify(betSettlementService, never()).sendBetSettlements(anyCollection());
+    }
+
+    @Test
+    void shardWithoutLeaseIsLeasedAndDrained() {
+        when(leaseRepository.acquire(eq(0), anyString(), any(), any())).thenReturn(0, 1);
+        when(leaseRepository.existsById(0)).thenReturn(false);
+
+        relay.relay();
+
+        verify(leaseRepository).insert(eq(0), anyString(), any());
+        verify(betSettlementService).sendBetSettlements(anyCollection());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void shardLeaseCreatedConcurrentlyByAnotherInstanceIsNotDrained() {
+        when(leaseRepository.acquire(eq(0), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(0)).thenReturn(false);
+        when(leaseRepository.insert(eq(0), anyString(), any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        relay.relay();
+
+        verify(betSettlementService, never()).sendBetSettlements(anyCollection());
+    }
+
+    private static SettlementOutbox entry() {
+        return SettlementOutbox.builder()
+            .id(1L)
+            .shard(0)
+            .eventId("event1")
+            .betId(1L)
+            .userId("user1")
+            .settlementStatus(BetStatus.WON)
+            .payoutCents(1850)
+            .settlementTime(LocalDateTime.now())
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.sportygroup.service;
+
+import com.sportygroup.dto.CreateBetRequest;
+import com.sportygroup.model.Bet;
+import com.sportygroup.model.BetStatus;
+import com.sportygroup.model.EventOutcome;
+import com.sportygroup.repository.BetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * User bet lists are dropped from the cache only once the change that touched them commits
+ */
+@SpringBootTest
+class UserBetsCacheTest {
+
+    @Autowired
+    private UserBetsCache userBetsCache;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createdBetInvalidatesAfterCommit() {
+        assertInvalidatedOnCommit("cache-create", () -> betService.createBet(request("cache-create", "cache-create-event")));
+
+        assertEquals(1, userBetsCache.get("cache-create").size());
+    }
+
+    @Test
+    void createdBetsInvalidateAfterCommit() {
+        assertInvalidatedOnCommit("cache-create-many", () -> betService.createBets(List.of(
+            request("cache-create-many", "cache-create-many-event"),
+            request("cache-create-many", "cache-create-many-event"))));
+
+        assertEquals(2, userBetsCache.get("cache-create-many").size());
+    }
+
+    @Test
+    void bulkSettlementInvalidatesAfterCommit() {
+        placeBets("cache-bulk");
+
+        assertInvalidatedOnCommit("cache-bulk", () -> betService.settleEventBets(outcome("cache-bulk")));
+
+        assertStatuses("cache-bulk", BetStatus.WON, BetStatus.LOST);
+    }
+
+    @Test
+    void rangeSettlementInvalidatesAfterCommit() {
+        List<Bet> bets = placeBets("cache-range");
+        LocalDateTime settledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        assertInvalidatedOnCommit("cache-range", () -> betService.settleEventBetRange(outcome("cache-range"), settledAt,
+            bets.get(0).getBetId(), bets.get(1).getBetId()));
+
+        assertStatuses("cache-range", BetStatus.WON, BetStatus.LOST);
+    }
+
+    @Test
+    void chunkSettlementInvalidatesAfterCommit() {
+        placeBets("cache-chunk");
+
+        assertInvalidatedOnCommit("cache-chunk", () -> betService.settleNextChunk(outcome("cache-chunk"), 10));
+
+        assertStatuses("cache-chunk", BetStatus.WON, BetStatus.LOST);
+    }
+
+    @Test
+    void resettlementInvalidatesAfterCommit() {
+        placeBets("cache-resettle");
+        betService.settleEventBets(outcome("cache-resettle"));
+        EventOutcome corrected = new EventOutcome("cache-resettle", "Cache", "team2");
+
+        assertInvalidatedOnCommit("cache-resettle",
+            () -> betService.resettleNextChunk("cache-run", OutcomeIndex.of(corrected), 10));
+
+        assertStatuses("cache-resettle", BetStatus.LOST, BetStatus.WON);
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheEntry() {
+        List<Bet> before = userBetsCache.get("cache-rollback");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            betService.createBet(request("cache-rollback", "cache-rollback-event"));
+            status.setRollbackOnly();
+        });
+
+        assertSame(before, userBetsCache.get("cache-rollback"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bets WHERE user_id = 'cache-rollback'", Integer.class));
+    }
+
+    /**
+     * Runs the change in a transaction and checks the user's cached list survives until it commits
+     */
+    private void assertInvalidatedOnCommit(String userId, Runnable change) {
+        List<Bet> before = userBetsCache.get(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            change.run();
+            assertSame(before, userBetsCache.get(userId));
+        });
+        assertNotSame(before, userBetsCache.get(userId));
+    }
+
+    /**
+     * One bet on each team, both by the user named after the event
+     */
+    private List<Bet> placeBets(String eventId) {
+        return betRepository.saveAll(List.of(
+            new Bet(eventId, eventId, "match-winner", "team1", new BigDecimal("10.00")),
+            new Bet(eventId, eventId, "match-winner", "team2", new BigDecimal("10.00"))));
+    }
+
+    private void assertStatuses(String userId, BetStatus team1, BetStatus team2) {
+        List<Bet> bets = userBetsCache.get(userId);
+        assertEquals(2, bets.size());
+        for (Bet bet : bets) {
+            assertEquals("team1".equals(bet.getEventWinnerId()) ? team1 : team2, bet.getStatus());
+        }
+    }
+
+    private static OutcomeIndex outcome(String eventId) {
+        return OutcomeIndex.of(new EventOutcome(eventId, "Cache", "team1"));
+    }
+
+    private static CreateBetRequest request(String userId, String eventId) {
+        return CreateBetRequest.builder()
+            .userId(userId)
+            .eventId(eventId)
+            .eventMarketId("match-winner")
+            .eventWinnerId("team1")
+            .betAmount(new BigDecimal("10.00"))
+            .build();
+    }
+}